@@ -1,16 +1,64 @@
 package org.sprinting;
 
+import org.sprinting.coordinator.ThresholdTable;
 import org.sprinting.model.DataCenter;
+import org.sprinting.model.EpochProfiler;
 import org.sprinting.model.Task;
 import java.util.Random;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Headless run: simulates a data center for a number of epochs with seeded task arrivals and
+ * prints a throughput and per-phase timing report.
+ *
+ * Usage: {@code Main [runners] [epochs] [seed]}. Run with
+ * {@code -XX:StartFlightRecording:filename=sim.jfr} to also record the Epoch and
+ * ThresholdSolve JFR events.
+ */
 public class Main {
 
     public static void main(String[] args) {
         //configuration
-        
+        int procsPerServer = 2;
+        int serversPerRack = 10;
+        int numRunners = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        Random random = new Random(seed);
+
+        DataCenter dataCenter = new DataCenter(procsPerServer, serversPerRack, numRunners, arrivals(random, numRunners));
+        long start = System.nanoTime();
+        for (int e = 0; e < epochs; e++) {
+            // Roughly enough new work each epoch to keep a third of the runners busy
+            dataCenter.addTasks(arrivals(random, numRunners / 15));
+            dataCenter.runEpoch();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println();
+        System.out.printf("%d runners, %d epochs in %.2f s (%.0f epochs/s)%n",
+                numRunners, epochs, seconds, epochs / seconds);
+        ThresholdTable table = ThresholdTable.loadDefault();
+        System.out.println(table == null ? "Threshold table: none, live solves only"
+                : "Threshold table: " + table.size() + " cells");
+        System.out.printf("Work completed: %d, power trips: %d, thermal trips: %d%n",
+                dataCenter.getWorkCompleted(), dataCenter.getPowerTrips(), dataCenter.getThermalTrips());
+        EpochProfiler.Summary profile = dataCenter.getProfiler().summarize();
+        System.out.println(profile.format());
+    }
+
+    /**
+     * Tasks of 3 to 7 epochs; 70% low utility and 30% high, as in Task's default mix.
+     */
+    private static List<Task> arrivals(Random random, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double mean = random.nextDouble() < 0.7 ? 0.2 : 0.8;
+            double utility = Math.max(0.0, Math.min(1.0, mean + 0.08 * random.nextGaussian()));
+            tasks.add(new Task(Task.getNumberOfTasksCreated(), 3 + random.nextInt(5), utility));
+        }
+        return tasks;
     }
 }
@@ -0,0 +1,44 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order in which an epoch's arrivals are handed to the scheduler as one batch.
+ *
+ * Sorting packs each task's sort key into the high 32 bits of a long and its arrival index
+ * into the low 32, so a single primitive Arrays.sort orders the batch with arrival order as
+ * the tie-break and no comparator or boxing.
+ */
+public enum BatchOrder {
+    ARRIVAL,  // as submitted, one placement per arrival
+    LPT,      // longest remaining work first
+    UTILITY;  // highest utility first
+
+    // Utility in [0, 1] is quantised to this many steps for the packed key
+    private static final double UTILITY_SCALE = Integer.MAX_VALUE;
+
+    public List<Task> sort(List<Task> tasks) {
+        if (this == ARRIVAL || tasks.size() < 2) {
+            return tasks;
+        }
+        long[] packed = new long[tasks.size()];
+        for (int i = 0; i < packed.length; i++) {
+            Task task = tasks.get(i);
+            long key = this == LPT
+                    ? Integer.MAX_VALUE - (long) task.getDuration()
+                    : (long) ((1.0 - Math.max(0.0, Math.min(1.0, task.getUtility()))) * UTILITY_SCALE);
+            packed[i] = (key << 32) | i;
+        }
+        Arrays.sort(packed);
+
+        List<Task> sorted = new ArrayList<>(packed.length);
+        for (long p : packed) {
+            sorted.add(tasks.get((int) p));
+        }
+        return sorted;
+    }
+}
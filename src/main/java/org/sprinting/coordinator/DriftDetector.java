@@ -0,0 +1,57 @@
+package org.sprinting.coordinator;
+
+/**
+ * Two-sided CUSUM change detector over a scalar statistic.
+ * Observations are standardised against a reference mean/std captured at the last reset;
+ * an alarm is raised once the accumulated deviation in either direction exceeds the
+ * decision threshold.
+ */
+public class DriftDetector {
+
+    private final double slack;     // k: deviations (in std units) below this are ignored
+    private final double threshold; // h: alarm once either sum exceeds this
+    private final double minStd;
+
+    private double refMean;
+    private double refStd;
+    private double upper;
+    private double lower;
+    private boolean armed;
+
+    public DriftDetector(double slack, double threshold, double minStd) {
+        this.slack = slack;
+        this.threshold = threshold;
+        this.minStd = minStd;
+    }
+
+    /**
+     * Starts monitoring against a new reference distribution.
+     */
+    public void reset(double mean, double std) {
+        this.refMean = mean;
+        this.refStd = Math.max(std, minStd);
+        this.upper = 0.0;
+        this.lower = 0.0;
+        this.armed = true;
+    }
+
+    /**
+     * Feeds one observation and returns true if drift has been detected.
+     * An unarmed detector (no reference yet) always reports drift.
+     */
+    public boolean observe(double x) {
+        if (!armed) return true;
+        double z = (x - refMean) / refStd;
+        upper = Math.max(0.0, upper + z - slack);
+        lower = Math.max(0.0, lower - z - slack);
+        return hasDrifted();
+    }
+
+    public boolean hasDrifted() {
+        return !armed || upper > threshold || lower > threshold;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+}
@@ -9,21 +9,42 @@ import java.util.List;
 /**
  * Greedy scheduler: assigns incoming tasks to the runner with least total work.
  */
-public class GreedyScheduler {
+public class GreedyScheduler implements Scheduler {
     private final List<TaskRunner> runners;
 
     public GreedyScheduler(List<TaskRunner> runners) {
         this.runners = runners;
     }
 
+    @Override
     public void assignTask(Task task) {
         TaskRunner leastLoaded = runners.stream()
-                .min(Comparator.comparingInt(TaskRunner::getTotalWork))
+                .min(Comparator.comparingDouble(TaskRunner::getLoad))
                 .orElseThrow();
 
         leastLoaded.addTask(task);
         System.out.println("Assigned task " + task + " to " + leastLoaded.getId());
     }
+
+    /**
+     * Places the whole batch against one snapshot of runner loads kept in a min-heap, so each
+     * placement is O(log n) instead of a scan over every runner.
+     */
+    @Override
+    public void assignTasks(List<Task> tasks) {
+        double[] loads = new double[runners.size()];
+        for (int i = 0; i < loads.length; i++) {
+            loads[i] = runners.get(i).getLoad();
+        }
+        RunnerHeap heap = new RunnerHeap(loads);
+        for (Task task : tasks) {
+            int id = heap.peekMin();
+            TaskRunner runner = runners.get(id);
+            heap.update(id, heap.getKey(id) + task.getDuration() / (double) runner.getExecutionSlots());
+            runner.addTask(task);
+        }
+    }
+
 }
 
 
@@ -0,0 +1,39 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.Task;
+
+/**
+ * Least-loaded placement driven by a {@link TopologyTree}: the best runner (racks fully in
+ * recovery are penalised) is read at the root, and the runner's change is propagated back up
+ * through the nodes on its path only, O(log n). After each epoch only the runners DataCenter
+ * lists as changed are propagated, so chip temperatures are seen at its 5% resolution.
+ */
+public class HierarchicalScheduler implements Scheduler {
+
+    private final DataCenter dataCenter;
+    private final TopologyTree tree;
+
+    public HierarchicalScheduler(DataCenter dataCenter) {
+        this.dataCenter = dataCenter;
+        this.tree = new TopologyTree(dataCenter);
+    }
+
+    @Override
+    public void assignTask(Task task) {
+        int id = tree.leastLoadedRunner();
+        dataCenter.getRunners().get(id).addTask(task);
+        tree.update(id);
+    }
+
+    @Override
+    public void onEpochEnd() {
+        for (int k = 0; k < dataCenter.getChangedRunnerCount(); k++) {
+            tree.update(dataCenter.getChangedRunner(k));
+        }
+    }
+
+    public TopologyTree getTree() {
+        return tree;
+    }
+}
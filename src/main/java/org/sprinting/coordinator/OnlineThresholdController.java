@@ -0,0 +1,156 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.TaskRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stochastic-approximation alternative to the Bellman solve: every epoch each rack's threshold
+ * takes a small step up when the rack tripped more often than the target rate, and a small
+ * step down in proportion to the utility the rack left on the table just below its threshold.
+ * No solves are involved. The only per-runner work each epoch is the observation pass; the
+ * per-rack update is O(1), and a new threshold is pushed only to the runners of racks whose
+ * threshold moved. The rack layout is scanned once, and again only if the runner count changes.
+ */
+public class OnlineThresholdController implements ThresholdController {
+
+    private final double targetTripRate;  // desired P(rack trips in an epoch)
+    private final double stepSize;        // learning rate for the threshold
+    private final double utilityWeight;   // how hard marginal utility pulls the threshold down
+    private final double band;            // width of the "just below threshold" band
+    private final double minThreshold;
+    private final double maxThreshold;
+    private final double initialThreshold;
+
+    private double[] thresholds = new double[0];
+    private double[] tripRates = new double[0];     // EWMA of observed trips per rack
+    private boolean[] tripped = new boolean[0];     // trips reported since the last update
+    private double[] marginalUtility = new double[0];
+    private int[] rackSizes = new int[0];
+    // Runner list indices grouped by rack: rack r's runners are rackMembers[rackStart[r] .. rackStart[r + 1])
+    private int[] rackStart = new int[1];
+    private int[] rackMembers = new int[0];
+    private int runnerCount = -1;
+
+    public OnlineThresholdController() {
+        this(0.05, 0.02, 1.0, 0.1, 0.05, 0.95, 0.75);
+    }
+
+    public OnlineThresholdController(double targetTripRate, double stepSize, double utilityWeight,
+                                     double band, double minThreshold, double maxThreshold,
+                                     double initialThreshold) {
+        this.targetTripRate = targetTripRate;
+        this.stepSize = stepSize;
+        this.utilityWeight = utilityWeight;
+        this.band = band;
+        this.minThreshold = minThreshold;
+        this.maxThreshold = maxThreshold;
+        this.initialThreshold = initialThreshold;
+    }
+
+    @Override
+    public void onEpoch(List<TaskRunner> runners) {
+        boolean rescanned = ensureRacks(runners);
+
+        // Observation pass: utility a rack would have gained by admitting runners just below its threshold
+        Arrays.fill(marginalUtility, 0.0);
+        for (TaskRunner runner : runners) {
+            int rack = runner.getRackId();
+            double u = runner.getCurrentUtility();
+            double threshold = thresholds[rack];
+            if (runner.canSprint() && u > 0 && u <= threshold && u > threshold - band) {
+                marginalUtility[rack] += u;
+            }
+        }
+
+        // Per-rack Robbins-Monro step towards the target trip rate
+        for (int rack = 0; rack < thresholds.length; rack++) {
+            double trip = tripped[rack] ? 1.0 : 0.0;
+            tripRates[rack] = 0.9 * tripRates[rack] + 0.1 * trip;
+
+            double step = stepSize * (tripRates[rack] - targetTripRate);
+            if (!tripped[rack] && rackSizes[rack] > 0) {
+                step -= stepSize * utilityWeight * marginalUtility[rack] / rackSizes[rack];
+            }
+            double previous = thresholds[rack];
+            thresholds[rack] = Math.max(minThreshold, Math.min(maxThreshold, previous + step));
+            tripped[rack] = false;
+
+            if (rescanned || thresholds[rack] != previous) {
+                for (int k = rackStart[rack]; k < rackStart[rack + 1]; k++) {
+                    runners.get(rackMembers[k]).setSprintThreshold(thresholds[rack]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sizes the per-rack state and groups the runners by rack. Does nothing unless the runner
+     * count changed since the last call; returns true if it rescanned, so every rack is pushed.
+     */
+    private boolean ensureRacks(List<TaskRunner> runners) {
+        if (runners.size() == runnerCount) return false;
+        runnerCount = runners.size();
+
+        int racks = 0;
+        for (TaskRunner runner : runners) {
+            racks = Math.max(racks, runner.getRackId() + 1);
+        }
+        if (racks != thresholds.length) {
+            int old = thresholds.length;
+            thresholds = Arrays.copyOf(thresholds, racks);
+            tripRates = Arrays.copyOf(tripRates, racks);
+            tripped = Arrays.copyOf(tripped, racks);
+            marginalUtility = new double[racks];
+            for (int rack = old; rack < racks; rack++) {
+                thresholds[rack] = initialThreshold;
+            }
+        }
+
+        rackSizes = new int[racks];
+        for (TaskRunner runner : runners) {
+            rackSizes[runner.getRackId()]++;
+        }
+        rackStart = new int[racks + 1];
+        for (int rack = 0; rack < racks; rack++) {
+            rackStart[rack + 1] = rackStart[rack] + rackSizes[rack];
+        }
+        rackMembers = new int[runnerCount];
+        int[] next = Arrays.copyOf(rackStart, racks);
+        for (int i = 0; i < runnerCount; i++) {
+            rackMembers[next[runners.get(i).getRackId()]++] = i;
+        }
+        return true;
+    }
+
+    @Override
+    public void recordPowerTrip(int rackId) {
+        if (rackId >= 0 && rackId < tripped.length) {
+            tripped[rackId] = true;
+        }
+    }
+
+    public double getRackThreshold(int rackId) {
+        return rackId >= 0 && rackId < thresholds.length ? thresholds[rackId] : initialThreshold;
+    }
+
+    /**
+     * Mean threshold across racks.
+     */
+    @Override
+    public double getCurrentThreshold() {
+        if (thresholds.length == 0) return initialThreshold;
+        double sum = 0;
+        for (double t : thresholds) sum += t;
+        return sum / thresholds.length;
+    }
+
+    /**
+     * Thresholds are adjusted every epoch.
+     */
+    @Override
+    public int getEpochsUntilRecompute() {
+        return 1;
+    }
+}
@@ -0,0 +1,67 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.Task;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Randomized "power of d choices" scheduler: samples d runners uniformly and places the task
+ * on the least loaded of them. Placement is O(d) regardless of runner count, and with d = 2
+ * the maximum load is already exponentially better than purely random placement.
+ *
+ * Safe to call from several threads at once: each thread draws from its own SplittableRandom
+ * split off a seeded root, and TaskRunner.addTask is synchronized.
+ */
+public class PowerOfDChoicesScheduler implements Scheduler {
+
+    // Below this many arrivals the fork/join overhead outweighs parallel placement
+    private static final int PARALLEL_BATCH = 10_000;
+
+    private final List<TaskRunner> runners;
+    private final int choices;
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom> random;
+
+    public PowerOfDChoicesScheduler(List<TaskRunner> runners) {
+        this(runners, 2, System.nanoTime());
+    }
+
+    public PowerOfDChoicesScheduler(List<TaskRunner> runners, int choices, long seed) {
+        if (choices < 1) {
+            throw new IllegalArgumentException("Need at least one choice, got " + choices);
+        }
+        this.runners = runners;
+        this.choices = choices;
+        this.root = new SplittableRandom(seed);
+        this.random = ThreadLocal.withInitial(this::split);
+    }
+
+    private synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    @Override
+    public void assignTask(Task task) {
+        SplittableRandom rnd = random.get();
+        int n = runners.size();
+        TaskRunner best = runners.get(rnd.nextInt(n));
+        for (int i = 1; i < choices; i++) {
+            TaskRunner candidate = runners.get(rnd.nextInt(n));
+            if (candidate.getLoad() < best.getLoad()) {
+                best = candidate;
+            }
+        }
+        best.addTask(task);
+    }
+
+    @Override
+    public void assignTasks(List<Task> tasks) {
+        if (tasks.size() < PARALLEL_BATCH) {
+            Scheduler.super.assignTasks(tasks);
+        } else {
+            tasks.parallelStream().forEach(this::assignTask);
+        }
+    }
+}
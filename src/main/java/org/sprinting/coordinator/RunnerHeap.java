@@ -0,0 +1,104 @@
+package org.sprinting.coordinator;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap over runner ids with primitive double keys.
+ * Supports O(log n) key updates for any runner and O(1) access to the minimum.
+ */
+public class RunnerHeap {
+
+    private final int[] heap;     // heap position -> runner id
+    private final int[] position; // runner id -> heap position
+    private final double[] keys;  // runner id -> key
+    private final int size;
+
+    /**
+     * Builds a heap containing runner ids 0..n-1, all with the same initial key.
+     */
+    public RunnerHeap(int n, double initialKey) {
+        this.size = n;
+        this.heap = new int[n];
+        this.position = new int[n];
+        this.keys = new double[n];
+        Arrays.fill(keys, initialKey);
+        for (int i = 0; i < n; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+    }
+
+    /**
+     * Builds a heap over runner ids 0..keys.length-1 from a snapshot of their keys in O(n).
+     */
+    public RunnerHeap(double[] initialKeys) {
+        this.size = initialKeys.length;
+        this.heap = new int[size];
+        this.position = new int[size];
+        this.keys = initialKeys.clone();
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+        for (int pos = size / 2 - 1; pos >= 0; pos--) {
+            siftDown(pos);
+        }
+    }
+
+    public int peekMin() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    public void update(int id, double key) {
+        double old = keys[id];
+        if (key == old) return;
+        keys[id] = key;
+        if (key < old) {
+            siftUp(position[id]);
+        } else {
+            siftDown(position[id]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int pos) {
+        int id = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(id, heap[parent])) break;
+            place(heap[parent], pos);
+            pos = parent;
+        }
+        place(id, pos);
+    }
+
+    private void siftDown(int pos) {
+        int id = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], id)) break;
+            place(heap[child], pos);
+            pos = child;
+        }
+        place(id, pos);
+    }
+
+    // Ties go to the lower runner id, matching a linear scan
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void place(int id, int pos) {
+        heap[pos] = id;
+        position[id] = pos;
+    }
+}
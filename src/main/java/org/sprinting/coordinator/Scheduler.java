@@ -0,0 +1,31 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.Task;
+
+import java.util.List;
+
+/**
+ * Places incoming tasks onto TaskRunners.
+ */
+public interface Scheduler {
+
+    void assignTask(Task task);
+
+    /**
+     * Places every task in the list. Implementations may override this to place a whole
+     * epoch's arrivals more cheaply than one call per task.
+     */
+    default void assignTasks(List<Task> tasks) {
+        for (Task task : tasks) {
+            assignTask(task);
+        }
+    }
+
+    /**
+     * Called by DataCenter after every epoch has executed; lets implementations refresh any
+     * placement state derived from the runners. DataCenter's change list
+     * ({@link org.sprinting.model.DataCenter#getChangedRunner(int)}) is already up to date.
+     */
+    default void onEpochEnd() {
+    }
+}
@@ -4,28 +4,110 @@ import org.sprinting.model.TaskRunner;
 import org.sprinting.model.SprintingBellmanDemo;
 import java.util.List;
 
-public class SprintCoordinator {
+/**
+ * Threshold controller that re-solves the Bellman mean-field model from the current
+ * utility statistics and applies one threshold to every runner.
+ */
+public class SprintCoordinator implements ThresholdController {
 
-    private final int recomputeInterval; // N epochs
+    private final int minRecomputeInterval; // never re-solve more often than this
+    private final int maxRecomputeInterval; // always re-solve at least this often
     private int epochsSinceLastRecompute = 0;
     private double currentThreshold = 0.75;
 
+    // Change detection on the utility statistics and the observed power-trip rate. The utility
+    // detectors watch the per-epoch sample mean and std across runners, so they are referenced
+    // to the standard errors of those statistics rather than to the per-runner spread. Their
+    // reference is itself one epoch's sample, off by about one standard error, hence the wider
+    // slack; a 0.05 mean shift over 1000 runners is still several standard errors
+    private final DriftDetector utilityDrift = new DriftDetector(2.0, 8.0, 0.001);
+    private final DriftDetector spreadDrift = new DriftDetector(2.0, 8.0, 0.001);
+    private final DriftDetector tripDrift = new DriftDetector(0.25, 2.0, 0.05);
+    private int tripsSinceLastEpoch = 0;
+    private double tripRate = 0.0; // EWMA of P(any rack tripped in an epoch)
+
+    // Utility statistics over runners with a current task, refreshed every epoch
+    private int utilityCount;
+    private double utilityMean;
+    private double utilityStd;
+
     // Bellman solver parameters — match Table 2
     private final SprintingBellmanDemo.Params params;
 
+    // Optional precomputed threshold surface; null means every recompute is a live solve
+    private final ThresholdTable table;
+
+    /**
+     * Fixed schedule: re-solves every recomputeInterval epochs.
+     */
     public SprintCoordinator(int recomputeInterval) {
-        this.recomputeInterval = recomputeInterval;
+        this(recomputeInterval, recomputeInterval);
+    }
+
+    public SprintCoordinator(int recomputeInterval, ThresholdTable table) {
+        this(recomputeInterval, recomputeInterval, table);
+    }
+
+    /**
+     * Drift-triggered schedule: re-solves as soon as the utility distribution or trip rate
+     * moves (but no sooner than minInterval epochs), and at least every maxInterval epochs.
+     */
+    public SprintCoordinator(int minInterval, int maxInterval) {
+        this(minInterval, maxInterval, ThresholdTable.loadDefault());
+    }
+
+    public SprintCoordinator(int minInterval, int maxInterval, ThresholdTable table) {
+        if (minInterval < 1 || maxInterval < minInterval) {
+            throw new IllegalArgumentException("Invalid recompute bounds [" + minInterval + ", " + maxInterval + "]");
+        }
+        this.minRecomputeInterval = minInterval;
+        this.maxRecomputeInterval = maxInterval;
         this.params = new SprintingBellmanDemo.Params();
+        this.table = table;
     }
 
+    @Override
     public void onEpoch(List<TaskRunner> runners) {
         epochsSinceLastRecompute++;
-        if (epochsSinceLastRecompute >= recomputeInterval) {
+
+        double tripped = tripsSinceLastEpoch > 0 ? 1.0 : 0.0;
+        tripsSinceLastEpoch = 0;
+        tripRate = 0.9 * tripRate + 0.1 * tripped;
+
+        // Feed every detector every epoch so a shift is caught even inside the min interval
+        boolean drifted = tripDrift.observe(tripped);
+        updateUtilityStats(runners);
+        drifted |= utilityDrift.observe(utilityMean);
+        drifted |= spreadDrift.observe(utilityStd);
+
+        if (epochsSinceLastRecompute >= maxRecomputeInterval
+                || (drifted && epochsSinceLastRecompute >= minRecomputeInterval)) {
             recomputeThresholds(runners);
             epochsSinceLastRecompute = 0;
         }
     }
 
+    @Override
+    public void recordPowerTrip(int rackId) {
+        tripsSinceLastEpoch++;
+    }
+
+    private void updateUtilityStats(List<TaskRunner> runners) {
+        double sum = 0, sumSquares = 0;
+        int count = 0;
+        for (TaskRunner runner : runners) {
+            double u = runner.getCurrentUtility();
+            if (u > 0) {
+                sum += u;
+                sumSquares += u * u;
+                count++;
+            }
+        }
+        utilityCount = count;
+        utilityMean = count == 0 ? 0.0 : sum / count;
+        utilityStd = count == 0 ? 0.0 : Math.sqrt(Math.max(0.0, sumSquares / count - utilityMean * utilityMean));
+    }
+
     private void recomputeThresholds(List<TaskRunner> runners) {
 
         int runnersPerRack = 10; // matches your SERVERS_PER_RACK * PROCS_PER_SERVER
@@ -33,36 +115,22 @@ public class SprintCoordinator {
         params.Nmin = 2;   // ~25% of 10, paper uses Nmin = 0.25*N
         params.Nmax = 6;   // matches your MAX_RACK_SPRINTS
     
-        double[] utilities = runners.stream()
-            .mapToDouble(r -> r.getCurrentUtility())
-            .filter(u -> u > 0)
-            .toArray();
+        if (utilityCount == 0) return;
     
-        if (utilities.length == 0) return;
-    
-        double mean = 0, variance = 0;
-        for (double u : utilities) mean += u;
-        mean /= utilities.length;
-        for (double u : utilities) variance += (u - mean) * (u - mean);
-        double std = Math.sqrt(variance / utilities.length);
-        std = Math.max(std, 0.01);
+        double mean = utilityMean;
+        double std = Math.max(utilityStd, 0.01);
     
         params.uMin = 0.0;
         params.uMax = 1.0;
     
-        SprintingBellmanDemo.UtilityDistribution dist =
-            new SprintingBellmanDemo.NarrowGaussian(mean, std, params.uMin, params.uMax);
-    
-        SprintingBellmanDemo.BellmanMeanFieldSolver solver =
-            new SprintingBellmanDemo.BellmanMeanFieldSolver(params, dist);
-    
-        SprintingBellmanDemo.Result result =
-            solver.solve(0.40, 200, 2000, 1e-6, 1e-8);
-    
-        System.out.printf("Recomputed: u_T*=%.4f, P_trip=%.4f, nS=%.2f, converged=%s%n",
-            result.thresholdUT, result.ptrip, result.expectedNSprinters, result.converged);
-    
-            double rawThreshold = result.thresholdUT;
+            ThresholdSolveEvent event = new ThresholdSolveEvent();
+            event.begin();
+            String source = "table";
+            double rawThreshold = lookupThreshold(mean, std);
+            if (Double.isNaN(rawThreshold)) {
+                source = "solve";
+                rawThreshold = solveThreshold(mean, std);
+            }
             double normalizedThreshold = rawThreshold / params.uMax;
             
             // Clamp to a sensible range so it always sits between the two modes
@@ -71,16 +139,56 @@ public class SprintCoordinator {
             System.out.printf("Raw u_T*=%.4f → final threshold=%.4f%n", rawThreshold, finalThreshold);
             
             this.currentThreshold = finalThreshold;
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = source;
+                event.meanUtility = mean;
+                event.stdUtility = std;
+                event.rawThreshold = rawThreshold;
+                event.threshold = finalThreshold;
+                event.commit();
+            }
+            // Standard errors of the sample mean and (approximately) of the sample std
+            utilityDrift.reset(utilityMean, utilityStd / Math.sqrt(utilityCount));
+            spreadDrift.reset(utilityStd, utilityStd / Math.sqrt(2.0 * Math.max(1, utilityCount - 1)));
+            tripDrift.reset(tripRate, Math.sqrt(tripRate * (1.0 - tripRate)));
             for (TaskRunner runner : runners) {
                 runner.setSprintThreshold(finalThreshold);
             }
     }
 
+    /**
+     * Interpolates u_T* from the precomputed table, or NaN if there is no table or the
+     * current parameters fall outside it.
+     */
+    private double lookupThreshold(double mean, double std) {
+        if (table == null) return Double.NaN;
+        return table.lookup(params.pc, params.pr, params.delta,
+            params.Nmin / (double) params.N, params.Nmax / (double) params.N, mean, std);
+    }
+
+    private double solveThreshold(double mean, double std) {
+        SprintingBellmanDemo.UtilityDistribution dist =
+            new SprintingBellmanDemo.NarrowGaussian(mean, std, params.uMin, params.uMax);
+    
+        SprintingBellmanDemo.BellmanMeanFieldSolver solver =
+            new SprintingBellmanDemo.BellmanMeanFieldSolver(params, dist);
+    
+        SprintingBellmanDemo.Result result =
+            solver.solve(0.40, 200, 2000, 1e-6, 1e-8);
+    
+        System.out.printf("Recomputed: u_T*=%.4f, P_trip=%.4f, nS=%.2f, converged=%s%n",
+            result.thresholdUT, result.ptrip, result.expectedNSprinters, result.converged);
+        return result.thresholdUT;
+    }
+
+    @Override
     public double getCurrentThreshold() {
         return currentThreshold;
     }
 
+    @Override
     public int getEpochsUntilRecompute() {
-        return recomputeInterval - epochsSinceLastRecompute;
+        return maxRecomputeInterval - epochsSinceLastRecompute;
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.Task;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+
+/**
+ * Thermal- and power-aware placement: tasks whose utility clears the current sprint threshold
+ * go to the runner best able to sprint them (low load, cool chip, hydrogel in reserve, rack
+ * below its sprint limit); everything else goes to the least-loaded runner.
+ *
+ * Load is ranked in one indexed heap over all runners. Sprint suitability is ranked in two
+ * levels: a heap per rack over its runners' own scores, and a heap over racks keyed by each
+ * rack's best runner plus its rack-pressure term, which is shared by the whole rack. A change in
+ * a rack's sprint demand is then one O(log racks) update rather than a re-score of the rack.
+ *
+ * Rack demand counts runners holding sprint-worthy tasks, which runners track in O(1) as tasks
+ * are added, stolen and completed. After each epoch only the runners DataCenter lists as
+ * changed are re-scored, so chip temperature and hydrogel are seen at its 5% resolution.
+ */
+public class ThermalAwareScheduler implements Scheduler {
+
+    // Penalties are in epochs of queued work, so they trade off directly against load
+    private static final double TEMP_WEIGHT = 3.0;        // at chipTemp = 1.0
+    private static final double HYDROGEL_WEIGHT = 2.0;    // at fully depleted hydrogel
+    private static final double RACK_WEIGHT = 4.0;        // at MAX_RACK_SPRINTS expected sprinters
+    private static final double HORIZON = 5.0;            // epochs of queued work after which chip state is irrelevant
+
+    private final DataCenter dataCenter;
+    private final List<TaskRunner> runners;
+    private final int runnersPerRack;
+    private final RunnerHeap loadIndex;
+    private final RunnerHeap[] rackSprintIndex; // per rack, over rack-local runner ids, without the rack term
+    private final RunnerHeap sprintRackIndex;   // over racks: best runner score plus rack term
+    private final int[] hotAssigned; // sprint-worthy tasks placed per rack since the last epoch
+    private final int[] rackDemand;  // runners per rack holding sprint-worthy tasks
+    private final boolean[] demanding; // whether each runner is counted in rackDemand
+
+    public ThermalAwareScheduler(DataCenter dataCenter) {
+        this.dataCenter = dataCenter;
+        this.runners = dataCenter.getRunners();
+        this.runnersPerRack = dataCenter.getProcsPerServer() * dataCenter.getServersPerRack();
+        int racks = dataCenter.getNumRacks();
+        this.loadIndex = new RunnerHeap(runners.size(), 0.0);
+        this.rackSprintIndex = new RunnerHeap[racks];
+        for (int rack = 0; rack < racks; rack++) {
+            rackSprintIndex[rack] = new RunnerHeap(dataCenter.getRackRunners(rack).size(), 0.0);
+        }
+        this.sprintRackIndex = new RunnerHeap(racks, 0.0);
+        this.hotAssigned = new int[racks];
+        this.rackDemand = new int[racks];
+        this.demanding = new boolean[runners.size()];
+
+        // Work placed before this scheduler took over is classified once, against today's threshold
+        double threshold = dataCenter.getCurrentThreshold();
+        for (TaskRunner runner : runners) {
+            runner.markSprintWorthy(threshold);
+            updateDemand(runner);
+        }
+        for (TaskRunner runner : runners) {
+            refresh(runner);
+        }
+    }
+
+    @Override
+    public void assignTask(Task task) {
+        boolean wantsSprint = task.getUtility() > dataCenter.getCurrentThreshold();
+        int id;
+        if (wantsSprint) {
+            int rack = sprintRackIndex.peekMin();
+            id = rack * runnersPerRack + rackSprintIndex[rack].peekMin();
+        } else {
+            id = loadIndex.peekMin();
+        }
+        TaskRunner target = runners.get(id);
+        task.setSprintWorthy(wantsSprint);
+        target.addTask(task);
+        if (wantsSprint) {
+            hotAssigned[target.getRackId()]++;
+        }
+        updateDemand(target);
+        refresh(target);
+    }
+
+    /**
+     * Starts a new epoch's placement counts and re-scores the runners that changed in the last one.
+     */
+    @Override
+    public void onEpochEnd() {
+        for (int rack = 0; rack < hotAssigned.length; rack++) {
+            if (hotAssigned[rack] != 0) {
+                hotAssigned[rack] = 0;
+                refreshRack(rack);
+            }
+        }
+        for (int k = 0; k < dataCenter.getChangedRunnerCount(); k++) {
+            TaskRunner runner = runners.get(dataCenter.getChangedRunner(k));
+            updateDemand(runner);
+            refresh(runner);
+        }
+    }
+
+    private void updateDemand(TaskRunner runner) {
+        int id = runner.getId();
+        boolean now = runner.getSprintWorthyTaskCount() > 0;
+        if (now != demanding[id]) {
+            demanding[id] = now;
+            rackDemand[runner.getRackId()] += now ? 1 : -1;
+        }
+    }
+
+    private void refresh(TaskRunner runner) {
+        int id = runner.getId();
+        int rack = runner.getRackId();
+        double load = runner.getLoad();
+        loadIndex.update(id, load);
+        rackSprintIndex[rack].update(id - rack * runnersPerRack, load + runnerPenalty(runner));
+        refreshRack(rack);
+    }
+
+    private void refreshRack(int rack) {
+        RunnerHeap index = rackSprintIndex[rack];
+        double rackPressure = (rackDemand[rack] + hotAssigned[rack]) / (double) dataCenter.getMaxRackSprints();
+        sprintRackIndex.update(rack, index.getKey(index.peekMin()) + RACK_WEIGHT * Math.min(1.0, rackPressure));
+    }
+
+    /**
+     * Extra cost, in epochs, of placing sprint-worthy work on this runner, apart from its rack's
+     * pressure. Chip state only matters if the task would start soon, so thermal terms fade out
+     * as the queue grows.
+     */
+    private double runnerPenalty(TaskRunner runner) {
+        int id = runner.getId();
+        double load = runner.getLoad();
+        double imminence = Math.max(0.0, 1.0 - load / HORIZON);
+
+        // Recovery epochs that outlast the queue ahead of the task
+        double recovery = Math.max(0.0, runner.getEpochsInRecovery() - load);
+        return recovery
+                + imminence * (TEMP_WEIGHT * dataCenter.getChipTemp(id)
+                    + HYDROGEL_WEIGHT * (1.0 - dataCenter.getHydrogelState(id)));
+    }
+}
@@ -0,0 +1,24 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+
+/**
+ * Decides the sprint thresholds handed to each TaskRunner.
+ * Called once at the start of every epoch, before runners evaluate whether to sprint.
+ */
+public interface ThresholdController {
+
+    void onEpoch(List<TaskRunner> runners);
+
+    /**
+     * Reports that a rack exceeded its power limit during the current epoch.
+     */
+    default void recordPowerTrip(int rackId) {
+    }
+
+    double getCurrentThreshold();
+
+    int getEpochsUntilRecompute();
+}
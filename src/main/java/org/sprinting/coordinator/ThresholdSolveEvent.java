@@ -0,0 +1,35 @@
+package org.sprinting.coordinator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one threshold recompute by {@link SprintCoordinator}, whether it was answered
+ * from the precomputed table or by a live Bellman solve.
+ */
+@Name("org.sprinting.ThresholdSolve")
+@Label("Threshold Solve")
+@Category("Sprinting")
+@Description("A sprint threshold recompute and where its answer came from")
+@StackTrace(false)
+class ThresholdSolveEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    @Description("table or solve")
+    String source;
+
+    @Label("Mean Utility")
+    double meanUtility;
+
+    @Label("Utility Std Dev")
+    double stdUtility;
+
+    @Label("Raw Threshold")
+    double rawThreshold;
+
+    @Label("Threshold")
+    double threshold;
+}
@@ -0,0 +1,203 @@
+package org.sprinting.coordinator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Precomputed Bellman threshold surface, memory-mapped from the binary file written by
+ * {@link ThresholdTableGenerator}. Queries are answered by multilinear interpolation over
+ * the grid; anything outside the table's bounds returns NaN so the caller can fall back
+ * to a live solve.
+ *
+ * File layout (big-endian):
+ *   int magic, int version, int dims,
+ *   for each axis: int n, double[n] axis values (ascending),
+ *   double[prod(n)] raw u_T* values, row-major with the last axis varying fastest.
+ */
+public class ThresholdTable {
+
+    public static final int MAGIC = 0x53505254; // "SPRT"
+    public static final int VERSION = 1;
+    public static final String DEFAULT_PATH_PROPERTY = "sprinting.thresholdTable";
+    public static final String DEFAULT_PATH = "threshold_table.bin";
+
+    // Axis order used by both the generator and lookups
+    public static final int AXIS_PC = 0;
+    public static final int AXIS_PR = 1;
+    public static final int AXIS_DELTA = 2;
+    public static final int AXIS_NMIN_FRAC = 3; // Nmin / N
+    public static final int AXIS_NMAX_FRAC = 4; // Nmax / N
+    public static final int AXIS_MEAN = 5;      // utility mean
+    public static final int AXIS_STD = 6;       // utility standard deviation
+    public static final int DIMS = 7;
+
+    private final double[][] axes;
+    private final int[] strides;
+    private final DoubleBuffer values;
+
+    private ThresholdTable(double[][] axes, DoubleBuffer values) {
+        this.axes = axes;
+        this.values = values;
+        this.strides = new int[axes.length];
+        int stride = 1;
+        for (int d = axes.length - 1; d >= 0; d--) {
+            strides[d] = stride;
+            stride *= axes[d].length;
+        }
+    }
+
+    /**
+     * Memory-maps a table file. The mapping stays valid after the channel is closed.
+     */
+    public static ThresholdTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("Not a threshold table: " + path);
+            }
+            int version = buf.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported threshold table version " + version + " in " + path);
+            }
+            int dims = buf.getInt();
+            if (dims != DIMS) {
+                throw new IOException("Expected " + DIMS + " axes but found " + dims + " in " + path);
+            }
+            double[][] axes = new double[dims][];
+            long cells = 1;
+            for (int d = 0; d < dims; d++) {
+                int n = buf.getInt();
+                axes[d] = new double[n];
+                for (int i = 0; i < n; i++) {
+                    axes[d][i] = buf.getDouble();
+                }
+                cells *= n;
+            }
+            if (buf.remaining() < cells * Double.BYTES) {
+                throw new IOException("Truncated threshold table: " + path);
+            }
+            DoubleBuffer values = buf.slice().asDoubleBuffer();
+            return new ThresholdTable(axes, values);
+        }
+    }
+
+    /**
+     * The table named by the {@value #DEFAULT_PATH_PROPERTY} system property (or
+     * {@value #DEFAULT_PATH}), or null when there is no usable table. Mapped on first use and
+     * shared for the rest of the process, so later changes to the property or file are not seen.
+     */
+    public static ThresholdTable loadDefault() {
+        return DefaultHolder.TABLE;
+    }
+
+    private static final class DefaultHolder {
+        static final ThresholdTable TABLE = mapDefault();
+
+        private static ThresholdTable mapDefault() {
+            Path path = Paths.get(System.getProperty(DEFAULT_PATH_PROPERTY, DEFAULT_PATH));
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            try {
+                return load(path);
+            } catch (IOException e) {
+                System.err.println("Ignoring threshold table " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Writes a table in the format read by {@link #load(Path)}.
+     */
+    public static void write(Path path, double[][] axes, double[] thresholds) throws IOException {
+        int headerBytes = 3 * Integer.BYTES;
+        long cells = 1;
+        for (double[] axis : axes) {
+            headerBytes += Integer.BYTES + axis.length * Double.BYTES;
+            cells *= axis.length;
+        }
+        if (cells != thresholds.length) {
+            throw new IllegalArgumentException("Expected " + cells + " thresholds, got " + thresholds.length);
+        }
+        ByteBuffer buf = ByteBuffer.allocate(headerBytes + thresholds.length * Double.BYTES);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(axes.length);
+        for (double[] axis : axes) {
+            buf.putInt(axis.length);
+            for (double v : axis) buf.putDouble(v);
+        }
+        buf.asDoubleBuffer().put(thresholds);
+        buf.position(buf.capacity()).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        }
+    }
+
+    /**
+     * Returns the interpolated raw threshold u_T*, or NaN if the query falls outside the table.
+     */
+    public double lookup(double pc, double pr, double delta, double nminFrac, double nmaxFrac,
+                         double mean, double std) {
+        double[] q = {pc, pr, delta, nminFrac, nmaxFrac, mean, std};
+        int[] lo = new int[DIMS];
+        double[] frac = new double[DIMS];
+        for (int d = 0; d < DIMS; d++) {
+            double[] axis = axes[d];
+            double x = q[d];
+            if (!(x >= axis[0] && x <= axis[axis.length - 1])) {
+                return Double.NaN;
+            }
+            if (axis.length == 1) {
+                lo[d] = 0;
+                frac[d] = 0.0;
+                continue;
+            }
+            int i = Arrays.binarySearch(axis, x);
+            if (i < 0) i = -i - 2;                 // index of the lower grid point
+            if (i >= axis.length - 1) i = axis.length - 2;
+            lo[d] = i;
+            frac[d] = (x - axis[i]) / (axis[i + 1] - axis[i]);
+        }
+
+        // Blend the 2^DIMS surrounding corners
+        double sum = 0.0;
+        for (int corner = 0; corner < (1 << DIMS); corner++) {
+            double w = 1.0;
+            int offset = 0;
+            for (int d = 0; d < DIMS; d++) {
+                boolean upper = (corner & (1 << d)) != 0;
+                if (upper) {
+                    if (frac[d] == 0.0) { w = 0.0; break; }
+                    w *= frac[d];
+                    offset += (lo[d] + 1) * strides[d];
+                } else {
+                    w *= 1.0 - frac[d];
+                    offset += lo[d] * strides[d];
+                }
+            }
+            if (w != 0.0) {
+                sum += w * values.get(offset);
+            }
+        }
+        return sum;
+    }
+
+    public int size() {
+        return strides[0] * axes[0].length;
+    }
+
+    public double[] getAxis(int dim) {
+        return axes[dim].clone();
+    }
+}
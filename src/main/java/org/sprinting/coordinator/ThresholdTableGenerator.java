@@ -0,0 +1,112 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.BatchBellmanSolver;
+import org.sprinting.model.SprintingBellmanDemo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline generator for {@link ThresholdTable}. Solves the Bellman mean-field model over a
+ * dense grid of (pc, pr, delta, Nmin/N, Nmax/N, utility mean, utility std) with the batched
+ * solver and writes the raw thresholds to disk.
+ *
+ * Usage:
+ *   java org.sprinting.coordinator.ThresholdTableGenerator [output-path]
+ */
+public class ThresholdTableGenerator {
+
+    // Population size used to turn the Nmin/Nmax fractions back into agent counts
+    private static final int TABLE_N = 1000;
+    // Cells per batched solve (~6 MB of pdf matrix at the default 800-point grid)
+    private static final int SLAB_CELLS = 1024;
+
+    public static double[][] defaultAxes() {
+        double[][] axes = new double[ThresholdTable.DIMS][];
+        axes[ThresholdTable.AXIS_PC] = new double[] {0.40, 0.50, 0.60};
+        axes[ThresholdTable.AXIS_PR] = new double[] {0.80, 0.88, 0.94};
+        axes[ThresholdTable.AXIS_DELTA] = new double[] {0.95, 0.99};
+        axes[ThresholdTable.AXIS_NMIN_FRAC] = new double[] {0.1, 0.2, 0.3};
+        axes[ThresholdTable.AXIS_NMAX_FRAC] = new double[] {0.5, 0.6, 0.75};
+        axes[ThresholdTable.AXIS_MEAN] = linspace(0.0, 1.0, 21);
+        axes[ThresholdTable.AXIS_STD] = new double[] {0.01, 0.05, 0.1, 0.2, 0.3, 0.4};
+        return axes;
+    }
+
+    /**
+     * Solves every grid cell and returns the raw thresholds in the table's row-major order.
+     * Cells are handed to {@link BatchBellmanSolver} in slabs to bound the pdf matrix size.
+     */
+    public static double[] generate(double[][] axes) {
+        int[] sizes = new int[axes.length];
+        int cells = 1;
+        for (int d = 0; d < axes.length; d++) {
+            sizes[d] = axes[d].length;
+            cells *= sizes[d];
+        }
+
+        double[] thresholds = new double[cells];
+        for (int start = 0; start < cells; start += SLAB_CELLS) {
+            int end = Math.min(cells, start + SLAB_CELLS);
+            List<SprintingBellmanDemo.Params> params = new ArrayList<>(end - start);
+            List<SprintingBellmanDemo.UtilityDistribution> dists = new ArrayList<>(end - start);
+            for (int cell = start; cell < end; cell++) {
+                // Decode the row-major cell index into per-axis coordinates
+                double[] x = new double[axes.length];
+                int rem = cell;
+                for (int d = axes.length - 1; d >= 0; d--) {
+                    x[d] = axes[d][rem % sizes[d]];
+                    rem /= sizes[d];
+                }
+                SprintingBellmanDemo.Params p = cellParams(x);
+                params.add(p);
+                dists.add(new SprintingBellmanDemo.NarrowGaussian(
+                        x[ThresholdTable.AXIS_MEAN], x[ThresholdTable.AXIS_STD], p.uMin, p.uMax));
+            }
+
+            SprintingBellmanDemo.Result[] results = new BatchBellmanSolver(params, dists)
+                    .solve(0.40, 200, 2000, 1e-6, 1e-8);
+            for (int i = 0; i < results.length; i++) {
+                thresholds[start + i] = results[i].thresholdUT;
+            }
+            System.out.printf("Solved %d / %d cells%n", end, cells);
+        }
+        return thresholds;
+    }
+
+    static SprintingBellmanDemo.Params cellParams(double[] x) {
+        SprintingBellmanDemo.Params params = new SprintingBellmanDemo.Params();
+        params.pc = x[ThresholdTable.AXIS_PC];
+        params.pr = x[ThresholdTable.AXIS_PR];
+        params.delta = x[ThresholdTable.AXIS_DELTA];
+        params.N = TABLE_N;
+        params.Nmin = (int) Math.round(x[ThresholdTable.AXIS_NMIN_FRAC] * TABLE_N);
+        params.Nmax = (int) Math.round(x[ThresholdTable.AXIS_NMAX_FRAC] * TABLE_N);
+        params.uMin = 0.0;
+        params.uMax = 1.0;
+        return params;
+    }
+
+    private static double[] linspace(double lo, double hi, int n) {
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = lo + (hi - lo) * i / (n - 1);
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : ThresholdTable.DEFAULT_PATH);
+        double[][] axes = defaultAxes();
+
+        long start = System.nanoTime();
+        double[] thresholds = generate(axes);
+        ThresholdTable.write(out, axes, thresholds);
+
+        System.out.printf("Wrote %d thresholds to %s in %.1f s%n",
+                thresholds.length, out, (System.nanoTime() - start) / 1e9);
+    }
+}
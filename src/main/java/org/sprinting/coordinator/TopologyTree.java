@@ -0,0 +1,249 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+
+/**
+ * Runner/server/rack aggregation tree mirroring the data center topology
+ * (serverId = i / procsPerServer, rackId = serverId / serversPerRack).
+ *
+ * Every server is a small segment tree over its runners, every rack a segment tree over its
+ * servers' roots, and a top segment tree runs over the racks' roots. Each node holds its
+ * subtree's total load, least-loaded runner, sprint capacity (runners able to sprint), size
+ * and temperatures, combined from its two children only. Changing one runner recomputes just
+ * the nodes on its path to the root, O(log procsPerServer + log serversPerRack + log racks),
+ * and every aggregate question is an array lookup at a subtree root.
+ */
+public class TopologyTree {
+
+    // Extra load charged to a rack whose runners are all in recovery
+    private static final int RECOVERY_PENALTY = 5;
+
+    private final DataCenter dataCenter;
+    private final List<TaskRunner> runners;
+    private final int procsPerServer;
+    private final int serversPerRack;
+    private final int numServers;
+    private final int numRacks;
+
+    // Leaves per segment tree at each level, rounded up to a power of two
+    private final int serverLeaves;
+    private final int rackLeaves;
+    private final int topLeaves;
+    private final int rackBase; // first node of the rack trees
+    private final int topBase;  // first node of the top tree
+
+    // Node aggregates; a tree with base b and L leaves uses nodes b + 1 .. b + 2L - 1, root b + 1
+    private final double[] load;
+    private final int[] minRunner;   // -1 for an empty subtree
+    private final double[] minKey;   // placement key of minRunner, +inf when empty
+    private final int[] capacity;
+    private final int[] size;
+    private final double[] maxTemp;
+    private final double[] tempSum;
+
+    public TopologyTree(DataCenter dataCenter) {
+        this.dataCenter = dataCenter;
+        this.runners = dataCenter.getRunners();
+        this.procsPerServer = dataCenter.getProcsPerServer();
+        this.serversPerRack = dataCenter.getServersPerRack();
+        this.numServers = (runners.size() + procsPerServer - 1) / procsPerServer;
+        this.numRacks = dataCenter.getNumRacks();
+
+        this.serverLeaves = powerOfTwo(procsPerServer);
+        this.rackLeaves = powerOfTwo(serversPerRack);
+        this.topLeaves = powerOfTwo(numRacks);
+        this.rackBase = numServers * 2 * serverLeaves;
+        this.topBase = rackBase + numRacks * 2 * rackLeaves;
+        int nodes = topBase + 2 * topLeaves;
+
+        this.load = new double[nodes];
+        this.minRunner = new int[nodes];
+        this.minKey = new double[nodes];
+        this.capacity = new int[nodes];
+        this.size = new int[nodes];
+        this.maxTemp = new double[nodes];
+        this.tempSum = new double[nodes];
+
+        rebuild();
+    }
+
+    private static int powerOfTwo(int n) {
+        int size = 1;
+        while (size < Math.max(1, n)) size <<= 1;
+        return size;
+    }
+
+    /**
+     * Re-reads every runner and re-aggregates the whole tree bottom-up in O(n). Needed only
+     * when loads change without the runners being listed as changed, e.g. new slot counts.
+     */
+    public void rebuild() {
+        for (int server = 0; server < numServers; server++) {
+            int base = serverBase(server);
+            for (int j = 0; j < serverLeaves; j++) {
+                int id = server * procsPerServer + j;
+                if (j < procsPerServer && id < runners.size()) {
+                    setRunnerLeaf(base + serverLeaves + j, id);
+                } else {
+                    clear(base + serverLeaves + j);
+                }
+            }
+            combineAll(base, serverLeaves);
+        }
+        for (int rack = 0; rack < numRacks; rack++) {
+            int base = rackBase(rack);
+            for (int j = 0; j < rackLeaves; j++) {
+                int server = rack * serversPerRack + j;
+                if (j < serversPerRack && server < numServers) {
+                    copy(serverBase(server) + 1, base + rackLeaves + j);
+                } else {
+                    clear(base + rackLeaves + j);
+                }
+            }
+            combineAll(base, rackLeaves);
+        }
+        for (int j = 0; j < topLeaves; j++) {
+            if (j < numRacks) {
+                setRackLeaf(j);
+            } else {
+                clear(topBase + topLeaves + j);
+            }
+        }
+        combineAll(topBase, topLeaves);
+    }
+
+    /**
+     * Propagates a change to one runner up to the root, touching only the nodes on its path:
+     * O(log procsPerServer + log serversPerRack + log racks).
+     */
+    public void update(int runnerId) {
+        int server = runnerId / procsPerServer;
+        int rack = server / serversPerRack;
+        int serverBase = serverBase(server);
+        setRunnerLeaf(serverBase + serverLeaves + runnerId % procsPerServer, runnerId);
+        combinePath(serverBase, serverLeaves, runnerId % procsPerServer);
+
+        int rackBase = rackBase(rack);
+        copy(serverBase + 1, rackBase + rackLeaves + server % serversPerRack);
+        combinePath(rackBase, rackLeaves, server % serversPerRack);
+
+        setRackLeaf(rack);
+        combinePath(topBase, topLeaves, rack);
+    }
+
+    /**
+     * Least-loaded runner, racks fully in recovery penalised; O(1).
+     */
+    public int leastLoadedRunner() {
+        return minRunner[topBase + 1];
+    }
+
+    private int serverBase(int server) {
+        return server * 2 * serverLeaves;
+    }
+
+    private int rackBase(int rack) {
+        return rackBase + rack * 2 * rackLeaves;
+    }
+
+    private void setRunnerLeaf(int node, int id) {
+        TaskRunner runner = runners.get(id);
+        double temp = dataCenter.getChipTemp(id);
+        load[node] = runner.getLoad();
+        minRunner[node] = id;
+        minKey[node] = load[node];
+        capacity[node] = runner.canSprint() ? 1 : 0;
+        size[node] = 1;
+        maxTemp[node] = temp;
+        tempSum[node] = temp;
+    }
+
+    // A rack's top-level leaf is its rack root, with the recovery penalty on its placement key
+    private void setRackLeaf(int rack) {
+        int leaf = topBase + topLeaves + rack;
+        copy(rackBase(rack) + 1, leaf);
+        if (isRackInRecovery(rack)) minKey[leaf] += RECOVERY_PENALTY;
+    }
+
+    private void clear(int node) {
+        load[node] = 0.0;
+        minRunner[node] = -1;
+        minKey[node] = Double.POSITIVE_INFINITY;
+        capacity[node] = 0;
+        size[node] = 0;
+        maxTemp[node] = 0.0;
+        tempSum[node] = 0.0;
+    }
+
+    private void copy(int from, int to) {
+        load[to] = load[from];
+        minRunner[to] = minRunner[from];
+        minKey[to] = minKey[from];
+        capacity[to] = capacity[from];
+        size[to] = size[from];
+        maxTemp[to] = maxTemp[from];
+        tempSum[to] = tempSum[from];
+    }
+
+    private void combineAll(int base, int leaves) {
+        for (int i = leaves - 1; i >= 1; i--) {
+            combine(base + i, base + 2 * i, base + 2 * i + 1);
+        }
+    }
+
+    private void combinePath(int base, int leaves, int leaf) {
+        for (int i = (leaves + leaf) >> 1; i >= 1; i >>= 1) {
+            combine(base + i, base + 2 * i, base + 2 * i + 1);
+        }
+    }
+
+    // Ties go to the left child, i.e. the lowest id
+    private void combine(int node, int left, int right) {
+        load[node] = load[left] + load[right];
+        boolean takeRight = minKey[right] < minKey[left];
+        minRunner[node] = takeRight ? minRunner[right] : minRunner[left];
+        minKey[node] = takeRight ? minKey[right] : minKey[left];
+        capacity[node] = capacity[left] + capacity[right];
+        size[node] = size[left] + size[right];
+        maxTemp[node] = Math.max(maxTemp[left], maxTemp[right]);
+        tempSum[node] = tempSum[left] + tempSum[right];
+    }
+
+    public boolean isRackInRecovery(int rack) {
+        int root = rackBase(rack) + 1;
+        return size[root] > 0 && capacity[root] == 0;
+    }
+
+    public double getRackLoad(int rack) {
+        return load[rackBase(rack) + 1];
+    }
+
+    public int getRackSprintCapacity(int rack) {
+        return capacity[rackBase(rack) + 1];
+    }
+
+    public int getRackRecovering(int rack) {
+        int root = rackBase(rack) + 1;
+        return size[root] - capacity[root];
+    }
+
+    public double getRackMeanTemp(int rack) {
+        int root = rackBase(rack) + 1;
+        return size[root] == 0 ? 0.0 : tempSum[root] / size[root];
+    }
+
+    public double getServerLoad(int server) {
+        return load[serverBase(server) + 1];
+    }
+
+    public int getServerSprintCapacity(int server) {
+        return capacity[serverBase(server) + 1];
+    }
+
+    public double getServerMaxTemp(int server) {
+        return maxTemp[serverBase(server) + 1];
+    }
+}
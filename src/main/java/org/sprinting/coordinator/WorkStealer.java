@@ -0,0 +1,91 @@
+package org.sprinting.coordinator;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.Task;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * End-of-epoch work stealing: idle or lightly loaded runners take queued (never running)
+ * tasks from the tail of overloaded or recovering runners' queues, looking first within their
+ * own server and then within their rack.
+ *
+ * Stealing never crosses a rack, so racks are processed in parallel; the runner deques are
+ * guarded by each runner's own lock.
+ */
+public class WorkStealer {
+
+    private static final int MAX_STEALS_PER_THIEF = 4;
+    // A recovering runner cannot sprint, so its backlog counts as this much heavier
+    private static final double RECOVERY_WEIGHT = 2.0;
+
+    private final DataCenter dataCenter;
+
+    public WorkStealer(DataCenter dataCenter) {
+        this.dataCenter = dataCenter;
+    }
+
+    /**
+     * Runs one stealing round and returns the number of tasks that moved.
+     */
+    public int steal() {
+        return IntStream.range(0, dataCenter.getNumRacks()).parallel().map(this::stealWithinRack).sum();
+    }
+
+    private int stealWithinRack(int rack) {
+        List<TaskRunner> rackRunners = dataCenter.getRackRunners(rack);
+        if (rackRunners.isEmpty()) return 0;
+
+        double mean = 0;
+        for (TaskRunner runner : rackRunners) mean += runner.getLoad();
+        mean /= rackRunners.size();
+
+        int procsPerServer = dataCenter.getProcsPerServer();
+        int moved = 0;
+        for (int t = 0; t < rackRunners.size(); t++) {
+            TaskRunner thief = rackRunners.get(t);
+            if (thief.getLoad() > mean / 2 || !thief.canSprint()) continue;
+
+            // Same server first, then the rest of the rack
+            int serverStart = t - (thief.getId() % procsPerServer);
+            int serverEnd = Math.min(rackRunners.size(), serverStart + procsPerServer);
+            for (int steals = 0; steals < MAX_STEALS_PER_THIEF; steals++) {
+                TaskRunner victim = pickVictim(thief, rackRunners, serverStart, serverEnd);
+                if (victim == null) {
+                    victim = pickVictim(thief, rackRunners, 0, rackRunners.size());
+                }
+                if (victim == null) break;
+
+                Task task = victim.stealTask();
+                if (task == null) break;
+                thief.addTask(task);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Most overloaded runner in [from, to) whose tail task would still leave the thief
+     * lighter than the victim, or null if no move would improve balance.
+     */
+    private TaskRunner pickVictim(TaskRunner thief, List<TaskRunner> candidates, int from, int to) {
+        TaskRunner best = null;
+        double bestExcess = 0;
+        for (int i = from; i < to; i++) {
+            TaskRunner victim = candidates.get(i);
+            if (victim == thief) continue;
+            int tail = victim.peekStealableWork();
+            if (tail == 0) continue;
+            double victimLoad = victim.canSprint() ? victim.getLoad() : victim.getLoad() * RECOVERY_WEIGHT;
+            double excess = victimLoad - (thief.getLoad() + tail / (double) thief.getExecutionSlots());
+            if (excess > bestExcess) {
+                best = victim;
+                bestExcess = excess;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,186 @@
+package org.sprinting.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+import org.sprinting.model.DataCenter;
+
+/**
+ * Scalable alternative to {@link DataCenterView}: every runner is one colour cell in a grid,
+ * written straight from the snapshot arrays into an int ARGB buffer, pushed to a
+ * WritableImage with a single setPixels call and scaled onto a Canvas. There are no per-runner
+ * nodes, so cost per frame is one pass over the runners plus one image blit.
+ *
+ * Runners are laid out by id, a whole number of racks per row, so racks and servers stay
+ * contiguous. Hovering a cell shows that runner's details.
+ */
+public class CanvasDataCenterView extends Pane {
+
+    public enum ColorMode { STATE, TEMPERATURE, HYDROGEL }
+
+    // Same palette as TaskRunnerPanel
+    private static final int IDLE = 0xFF2ECC71;
+    private static final int WORKING = 0xFFF1C40F;
+    private static final int SPRINTING = 0xFFF39C12;
+    private static final int RECOVERING = 0xFFE74C3C;
+    private static final int EMPTY = 0xFF1A1A1A;
+
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+    private final int runnersPerRack;
+    private ColorMode colorMode = ColorMode.STATE;
+
+    private EpochSnapshot snapshot;
+    private int cols;
+    private int rows;
+    private int[] pixels = new int[0];
+    private WritableImage image;
+
+    public CanvasDataCenterView(int procsPerServer, int serversPerRack) {
+        this.runnersPerRack = procsPerServer * serversPerRack;
+        setStyle("-fx-background-color: #1a1a1a;");
+        getChildren().add(canvas);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener(obs -> draw());
+        canvas.heightProperty().addListener(obs -> draw());
+
+        tooltip.setShowDelay(Duration.millis(100));
+        Tooltip.install(canvas, tooltip);
+        canvas.setOnMouseMoved(e -> {
+            int id = runnerAt(e.getX(), e.getY());
+            tooltip.setText(id < 0 ? "" : describe(id));
+        });
+    }
+
+    /**
+     * Recolours every cell when {@code full} is set; otherwise only the cells of runners in
+     * the snapshot's change list whose change matters to the current colour mode.
+     */
+    public void update(EpochSnapshot snapshot, boolean full) {
+        this.snapshot = snapshot;
+        if (layoutGrid(snapshot.getNumRunners()) || full) {
+            fillPixels();
+        } else {
+            int relevant = relevantChanges();
+            for (int k = 0; k < snapshot.getChangedRunnerCount(); k++) {
+                if ((snapshot.getChangeFlags(k) & relevant) != 0) {
+                    int id = snapshot.getChangedRunner(k);
+                    pixels[id] = colorOf(id);
+                }
+            }
+        }
+        image.getPixelWriter().setPixels(0, 0, cols, rows, PixelFormat.getIntArgbPreInstance(), pixels, 0, cols);
+        draw();
+    }
+
+    public void setColorMode(ColorMode colorMode) {
+        this.colorMode = colorMode;
+        if (snapshot != null) update(snapshot, true);
+    }
+
+    private int relevantChanges() {
+        switch (colorMode) {
+            case TEMPERATURE:
+                return DataCenter.CHANGE_TEMP;
+            case HYDROGEL:
+                return DataCenter.CHANGE_HYDROGEL;
+            default:
+                return DataCenter.CHANGE_STATE;
+        }
+    }
+
+    /**
+     * Picks a near-square grid whose width is a whole number of racks; returns true if
+     * the grid was reallocated.
+     */
+    private boolean layoutGrid(int n) {
+        int racksPerRow = Math.max(1, (int) Math.round(Math.sqrt(n) / runnersPerRack));
+        int newCols = Math.max(1, Math.min(n, racksPerRow * runnersPerRack));
+        int newRows = Math.max(1, (n + newCols - 1) / newCols);
+        if (newCols == cols && newRows == rows) return false;
+        cols = newCols;
+        rows = newRows;
+        pixels = new int[cols * rows];
+        image = new WritableImage(cols, rows);
+        return true;
+    }
+
+    private void fillPixels() {
+        int n = snapshot.getNumRunners();
+        for (int i = 0; i < n; i++) {
+            pixels[i] = colorOf(i);
+        }
+        for (int i = n; i < pixels.length; i++) {
+            pixels[i] = EMPTY;
+        }
+    }
+
+    private int colorOf(int i) {
+        switch (colorMode) {
+            case TEMPERATURE:
+                return gradient(snapshot.getChipTemp(i), 0x3498DB, 0xE74C3C);
+            case HYDROGEL:
+                return gradient(snapshot.getHydrogelState(i), 0xE74C3C, 0x1ABC9C);
+            default:
+                if (!snapshot.canSprint(i)) return RECOVERING;
+                if (snapshot.isSprinting(i)) return SPRINTING;
+                return snapshot.getTotalWork(i) > 0 ? WORKING : IDLE;
+        }
+    }
+
+    // Linear blend between two RGB colours for t in [0, 1]
+    private static int gradient(double t, int from, int to) {
+        t = Math.max(0.0, Math.min(1.0, t));
+        int r = (int) (((from >> 16) & 0xFF) * (1 - t) + ((to >> 16) & 0xFF) * t);
+        int g = (int) (((from >> 8) & 0xFF) * (1 - t) + ((to >> 8) & 0xFF) * t);
+        int b = (int) ((from & 0xFF) * (1 - t) + (to & 0xFF) * t);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private double cellSize() {
+        return Math.min(canvas.getWidth() / cols, canvas.getHeight() / rows);
+    }
+
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.web("#1a1a1a"));
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (image == null) return;
+        double cell = cellSize();
+        gc.setImageSmoothing(false);
+        gc.drawImage(image, 0, 0, cols * cell, rows * cell);
+    }
+
+    private int runnerAt(double x, double y) {
+        if (snapshot == null) return -1;
+        double cell = cellSize();
+        int col = (int) (x / cell);
+        int row = (int) (y / cell);
+        if (col < 0 || col >= cols || row < 0 || row >= rows) return -1;
+        int id = row * cols + col;
+        return id < snapshot.getNumRunners() ? id : -1;
+    }
+
+    private String describe(int id) {
+        return String.format(
+            "Runner %d (rack %d)\n" +
+            "Total Work: %d\n" +
+            "Slots: %d / %d busy\n" +
+            "Sprinting: %s | Can Sprint: %s\n" +
+            "Chip Temp: %.2f\n" +
+            "Hydrogel: %.2f",
+            id, id / runnersPerRack,
+            snapshot.getTotalWork(id),
+            snapshot.getActiveSlots(id), snapshot.getExecutionSlots(id),
+            snapshot.isSprinting(id) ? "Yes" : "No",
+            snapshot.canSprint(id) ? "Yes" : "No",
+            snapshot.getChipTemp(id),
+            snapshot.getHydrogelState(id));
+    }
+}
@@ -1,5 +1,6 @@
 package org.sprinting.gui;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -7,40 +8,95 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import org.sprinting.model.DataCenter;
+import org.sprinting.model.EpochProfiler;
+import org.sprinting.model.QueueDiscipline;
 import org.sprinting.model.Task;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Main GUI application for the Data Center Simulator
+ * Main GUI application for the Data Center Simulator.
+ *
+ * The simulation runs on its own thread, which owns the DataCenter: the FX thread never touches
+ * the model, it posts commands to the simulation thread and renders the latest EpochSnapshot
+ * from an AnimationTimer. Simulation rate and frame rate are therefore independent.
  */
 public class DataCenterGUI extends Application {
     
-    private DataCenter dataCenter;
-    private DataCenterView dataCenterView;
+    private DataCenter dataCenter; // owned by the simulation thread once it has started
+    private DataCenterView dataCenterView;             // node-per-runner view, built only when shown
+    private CanvasDataCenterView canvasView;           // single-canvas view for large data centers
+    private HeatmapView heatmapView;                   // zoomable rack/server/chip aggregates
+    private ScrollPane scrollPane;
+    private BorderPane root;
+    private ViewMode viewMode;
     private Label epochLabel;
+    private Label rateLabel;
     private Label statsLabel;
     private Label thresholdLabel;
     private Label nextRecomputeLabel;  
-    private TextArea logArea;
+    private Label profileLabel;
+    private ListView<String> logView;
     private Button playPauseButton;
     private Button stepButton;
+    private Button turboButton;
     private Slider speedSlider;
+    private Slider timelineSlider;
+    private Button liveButton;
     
     private SimulationThread simulationThread;
-    private boolean isRunning = false;
-    private int currentEpoch = 0;
-    private int simulationSpeed = 1000; // milliseconds per epoch
+    private AnimationTimer renderTimer;
+    private boolean isRunning = false; // FX-side play/pause state
+    private boolean isTurbo = false;   // FX-side: running flat out rather than at the slider speed
+    private long rateEpoch;            // epochs/sec readout: epoch and time of the last sample
+    private long rateTime;
+    private volatile int simulationSpeed = 1000; // milliseconds per epoch
+    private volatile boolean sprintAdmission = false;
+    private volatile boolean workStealing = false;
+    private volatile boolean thermalGuard = false;
+    private volatile QueueDiscipline queueDiscipline = QueueDiscipline.FIFO;
+
+    // Hand-off between the simulation thread and the FX thread
+    private final LinkedBlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final AtomicReference<EpochSnapshot> latestSnapshot = new AtomicReference<>();
+    private final EventLog eventLog = new EventLog(LOG_CAPACITY);
+    private final MetricHistory metricHistory = new MetricHistory(HISTORY_CAPACITY);
+    private final List<TimeSeriesChart> charts = new ArrayList<>();
+    private long chartedSamples = -1;  // FX thread only
+    private long lastChartDraw;        // FX thread only
+    private EpochSnapshot renderedSnapshot; // FX thread only
+    private final StateHistory stateHistory = new StateHistory(Long.getLong("sprinting.historyMB", 64) << 20);
+    private EpochSnapshot scrubbedSnapshot;  // FX thread only: the past epoch being shown, or null for live
+    private boolean updatingTimeline;        // FX thread only: set while render() moves the slider
+    private final AtomicReference<EpochProfiler.Summary> latestProfile = new AtomicReference<>();
+    private EpochProfiler.Summary renderedProfile; // FX thread only
     
     // Configuration
     private static final int PROCS_PER_SERVER = 2;
     private static final int SERVERS_PER_RACK = 10;
-    private static final int NUM_RUNNERS = 40;
+    private static final int NUM_RUNNERS = Integer.getInteger("sprinting.runners", 40);
+    // Above this many runners the canvas view is the default
+    private static final int CANVAS_THRESHOLD = 500;
     private static final int INITIAL_TASKS = 20;
 
+    private enum ViewMode { PANELS, CANVAS, HEATMAP }
+
+    // When a running simulation pauses itself
+    private enum StopCondition { NEVER, POWER_TRIP, THERMAL_TRIP, EPOCH }
+    private static final long TURBO_PUBLISH_NS = 16_000_000L; // about one snapshot per frame
+    private static final long RATE_INTERVAL_NS = 500_000_000L;
+    private static final int LOG_CAPACITY = 5000; // events kept for the log view
+    private static final int HISTORY_CAPACITY = 1 << 20; // epochs of chart history (4 MB per series)
+    private static final long CHART_INTERVAL_NS = 200_000_000L; // charts redraw at most 5 times a second
+    private static final long PROFILE_INTERVAL_NS = 500_000_000L; // phase percentiles are resummarized twice a second
+
     @Override
     public void start(Stage primaryStage) {
         primaryStage.setTitle("Data Center Computational Sprinting Simulator");
@@ -49,23 +105,26 @@ public class DataCenterGUI extends Application {
         initializeDataCenter();
         
         // Create main layout
-        BorderPane root = new BorderPane();
+        root = new BorderPane();
         root.setPadding(new Insets(10));
         
         // Top: Control panel
         root.setTop(createControlPanel());
         
         // Center: Data center visualization
-        ScrollPane scrollPane = new ScrollPane();
-        dataCenterView = new DataCenterView(dataCenter, PROCS_PER_SERVER, SERVERS_PER_RACK);
-        scrollPane.setContent(dataCenterView);
+        scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
-        root.setCenter(scrollPane);
+        canvasView = new CanvasDataCenterView(PROCS_PER_SERVER, SERVERS_PER_RACK);
+        heatmapView = new HeatmapView(PROCS_PER_SERVER, SERVERS_PER_RACK);
+        showView(NUM_RUNNERS > CANVAS_THRESHOLD ? ViewMode.CANVAS : ViewMode.PANELS);
         
         // Right: Metrics and log panel
         root.setRight(createMetricsPanel());
         
+        // Bottom: Metric history charts
+        root.setBottom(createChartsPanel());
+        
         // Create scene
         Scene scene = new Scene(root, 1400, 800);
         // Optional: Uncomment if you have the CSS file
@@ -73,12 +132,24 @@ public class DataCenterGUI extends Application {
         primaryStage.setScene(scene);
         primaryStage.show();
         
-        // Initial update
-        updateVisualization();
+        // The simulation thread owns the data center from here on
+        latestSnapshot.set(EpochSnapshot.capture(dataCenter, 0, 0, 0));
+        stateHistory.record(dataCenter, 0);
+        simulationThread = new SimulationThread();
+        simulationThread.start();
+
+        renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                render();
+            }
+        };
+        renderTimer.start();
         
         // Handle window close
         primaryStage.setOnCloseRequest(e -> {
-            stopSimulation();
+            renderTimer.stop();
+            simulationThread.interrupt();
             Platform.exit();
         });
     }
@@ -89,6 +160,10 @@ public class DataCenterGUI extends Application {
             tasks.add(new Task(i, 3 + (int)(Math.random() * 5)));
         }
         dataCenter = new DataCenter(PROCS_PER_SERVER, SERVERS_PER_RACK, NUM_RUNNERS, tasks);
+        dataCenter.setSprintAdmission(sprintAdmission);
+        dataCenter.setWorkStealing(workStealing);
+        dataCenter.setThermalGuard(thermalGuard);
+        dataCenter.setQueueDiscipline(queueDiscipline);
     }
     
     private VBox createControlPanel() {
@@ -103,6 +178,10 @@ public class DataCenterGUI extends Application {
         // Epoch display
         epochLabel = new Label("Epoch: 0");
         epochLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: white;");
+        rateLabel = new Label("0 epochs/s");
+        rateLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #95a5a6;");
+        HBox epochBox = new HBox(15, epochLabel, rateLabel);
+        epochBox.setAlignment(Pos.CENTER_LEFT);
         
         // Control buttons
         HBox buttonBox = new HBox(10);
@@ -114,13 +193,43 @@ public class DataCenterGUI extends Application {
         stepButton = new Button("⏭ Step");
         stepButton.setOnAction(e -> stepSimulation());
         
+        turboButton = new Button("⏩ Turbo");
+        turboButton.setOnAction(e -> startTurbo());
+        
         Button resetButton = new Button("🔄 Reset");
         resetButton.setOnAction(e -> resetSimulation());
         
         Button addTasksButton = new Button("➕ Add Tasks");
         addTasksButton.setOnAction(e -> addRandomTasks());
         
-        buttonBox.getChildren().addAll(playPauseButton, stepButton, resetButton, addTasksButton);
+        // Pause condition, checked after every epoch
+        Label stopLabel = new Label("Stop at:");
+        stopLabel.setStyle("-fx-text-fill: white;");
+        ComboBox<StopCondition> stopBox = new ComboBox<>();
+        stopBox.getItems().addAll(StopCondition.values());
+        stopBox.setValue(StopCondition.NEVER);
+        TextField stopEpochField = new TextField("1000");
+        stopEpochField.setPrefColumnCount(6);
+        stopEpochField.disableProperty().bind(stopBox.valueProperty().isNotEqualTo(StopCondition.EPOCH));
+        Runnable applyStop = () -> {
+            StopCondition condition = stopBox.getValue();
+            long epoch;
+            try {
+                epoch = Long.parseLong(stopEpochField.getText().trim());
+            } catch (NumberFormatException ex) {
+                epoch = Long.MAX_VALUE;
+            }
+            long stopEpoch = epoch;
+            submit(() -> {
+                simulationThread.stopCondition = condition;
+                simulationThread.stopEpoch = stopEpoch;
+            });
+        };
+        stopBox.valueProperty().addListener((obs, oldVal, newVal) -> applyStop.run());
+        stopEpochField.textProperty().addListener((obs, oldVal, newVal) -> applyStop.run());
+        
+        buttonBox.getChildren().addAll(playPauseButton, stepButton, turboButton, resetButton, addTasksButton,
+                new HBox(5, stopLabel, stopBox, stopEpochField));
         
         // Speed control
         HBox speedBox = new HBox(10);
@@ -146,7 +255,93 @@ public class DataCenterGUI extends Application {
         
         speedBox.getChildren().addAll(speedLabel, speedSlider, speedValueLabel);
         
-        controlPanel.getChildren().addAll(titleLabel, epochLabel, buttonBox, speedBox);
+        // Rewind: dragging back pauses and shows a past epoch rebuilt from the state history
+        HBox timelineBox = new HBox(10);
+        timelineBox.setAlignment(Pos.CENTER);
+        Label timelineLabel = new Label("Rewind:");
+        timelineLabel.setStyle("-fx-text-fill: white;");
+        timelineSlider = new Slider(0, 0, 0);
+        timelineSlider.setPrefWidth(600);
+        timelineSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!updatingTimeline) scrubTo((int) Math.round(newVal.doubleValue()));
+        });
+        liveButton = new Button("Live");
+        liveButton.setDisable(true);
+        liveButton.setOnAction(e -> showLive());
+        timelineBox.getChildren().addAll(timelineLabel, timelineSlider, liveButton);
+        
+        // Sprint admission toggle
+        CheckBox admissionCheckBox = new CheckBox("Token-based sprint admission");
+        admissionCheckBox.setStyle("-fx-text-fill: white;");
+        admissionCheckBox.setSelected(sprintAdmission);
+        admissionCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            sprintAdmission = newVal;
+            submit(() -> dataCenter.setSprintAdmission(newVal));
+            log(EventLog.Type.CONTROL, "Sprint admission " + (newVal ? "enabled" : "disabled"));
+        });
+        
+        // Work stealing toggle
+        CheckBox stealingCheckBox = new CheckBox("Work stealing");
+        stealingCheckBox.setStyle("-fx-text-fill: white;");
+        stealingCheckBox.setSelected(workStealing);
+        stealingCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            workStealing = newVal;
+            submit(() -> dataCenter.setWorkStealing(newVal));
+            log(EventLog.Type.CONTROL, "Work stealing " + (newVal ? "enabled" : "disabled"));
+        });
+        
+        // Thermal guard toggle
+        CheckBox guardCheckBox = new CheckBox("Thermal guard");
+        guardCheckBox.setStyle("-fx-text-fill: white;");
+        guardCheckBox.setSelected(thermalGuard);
+        guardCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            thermalGuard = newVal;
+            submit(() -> dataCenter.setThermalGuard(newVal));
+            log(EventLog.Type.CONTROL, "Thermal guard " + (newVal ? "enabled" : "disabled"));
+        });
+        
+        // Runner queue discipline
+        Label queueLabel = new Label("Queue:");
+        queueLabel.setStyle("-fx-text-fill: white;");
+        ComboBox<QueueDiscipline> queueBox = new ComboBox<>();
+        queueBox.getItems().addAll(QueueDiscipline.values());
+        queueBox.setValue(queueDiscipline);
+        queueBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+            queueDiscipline = newVal;
+            submit(() -> dataCenter.setQueueDiscipline(newVal));
+            log(EventLog.Type.CONTROL, "Queue discipline set to " + newVal);
+        });
+
+        HBox optionsBox = new HBox(20, admissionCheckBox, stealingCheckBox, guardCheckBox, new HBox(5, queueLabel, queueBox));
+        optionsBox.setAlignment(Pos.CENTER);
+
+        // View selection
+        Label viewLabel = new Label("View:");
+        viewLabel.setStyle("-fx-text-fill: white;");
+        ComboBox<ViewMode> viewModeBox = new ComboBox<>();
+        viewModeBox.getItems().addAll(ViewMode.values());
+        viewModeBox.setValue(viewMode);
+        viewModeBox.valueProperty().addListener((obs, oldVal, newVal) -> showView(newVal));
+
+        Label colorLabel = new Label("Colour by:");
+        colorLabel.setStyle("-fx-text-fill: white;");
+        ComboBox<CanvasDataCenterView.ColorMode> colorBox = new ComboBox<>();
+        colorBox.getItems().addAll(CanvasDataCenterView.ColorMode.values());
+        colorBox.setValue(CanvasDataCenterView.ColorMode.STATE);
+        colorBox.valueProperty().addListener((obs, oldVal, newVal) -> canvasView.setColorMode(newVal));
+
+        Label metricLabel = new Label("Heatmap:");
+        metricLabel.setStyle("-fx-text-fill: white;");
+        ComboBox<HeatmapView.Metric> metricBox = new ComboBox<>();
+        metricBox.getItems().addAll(HeatmapView.Metric.values());
+        metricBox.setValue(HeatmapView.Metric.POWER);
+        metricBox.valueProperty().addListener((obs, oldVal, newVal) -> heatmapView.setMetric(newVal));
+
+        HBox viewBox = new HBox(20, new HBox(5, viewLabel, viewModeBox), new HBox(5, colorLabel, colorBox),
+                new HBox(5, metricLabel, metricBox));
+        viewBox.setAlignment(Pos.CENTER);
+        
+        controlPanel.getChildren().addAll(titleLabel, epochBox, buttonBox, speedBox, timelineBox, optionsBox, viewBox);
         return controlPanel;
     }
     
@@ -168,20 +363,85 @@ public class DataCenterGUI extends Application {
         
         statsLabel = new Label();
         statsLabel.setStyle("-fx-text-fill: white; -fx-font-family: monospace;");
-        updateStats();
+        
+        Label profileTitle = new Label("Epoch Profile");
+        profileTitle.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: white;");
+        
+        profileLabel = new Label("No epochs run yet");
+        profileLabel.setStyle("-fx-text-fill: #bdc3c7; -fx-font-family: monospace; -fx-font-size: 10px;");
         
         Label logTitle = new Label("Event Log");
         logTitle.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: white;");
         
-        logArea = new TextArea();
-        logArea.setEditable(false);
-        logArea.setPrefRowCount(20);
-        logArea.setStyle("-fx-control-inner-background: #2c3e50; -fx-text-fill: #ecf0f1; -fx-font-family: monospace;");
+        // Virtualized: only the visible rows have cells, however long the log is
+        logView = new ListView<>(eventLog.getItems());
+        logView.setPrefHeight(400);
+        logView.setStyle("-fx-control-inner-background: #2c3e50; -fx-text-fill: #ecf0f1; -fx-font-family: monospace;");
+        VBox.setVgrow(logView, Priority.ALWAYS);
+        
+        // One toggle per event type
+        FlowPane logFilters = new FlowPane(8, 4);
+        for (EventLog.Type type : EventLog.Type.values()) {
+            CheckBox filter = new CheckBox(type.name().charAt(0) + type.name().substring(1).toLowerCase());
+            filter.setStyle("-fx-text-fill: white;");
+            filter.setSelected(eventLog.isShown(type));
+            filter.selectedProperty().addListener((obs, oldVal, newVal) -> {
+                eventLog.setShown(type, newVal);
+                logView.scrollTo(eventLog.getItems().size() - 1);
+            });
+            logFilters.getChildren().add(filter);
+        }
         
-        metricsPanel.getChildren().addAll(metricsTitle, thresholdLabel, nextRecomputeLabel, statsLabel, new Separator(), logTitle, logArea);
+        metricsPanel.getChildren().addAll(metricsTitle, thresholdLabel, nextRecomputeLabel, statsLabel, new Separator(), profileTitle, profileLabel, new Separator(), logTitle, logFilters, logView);
         return metricsPanel;
     }
     
+    private HBox createChartsPanel() {
+        charts.add(new TimeSeriesChart("Runners", metricHistory,
+            new MetricHistory.Series[] {MetricHistory.Series.SPRINTING, MetricHistory.Series.RECOVERING, MetricHistory.Series.IDLE},
+            new String[] {"sprinting", "recovering", "idle"},
+            new Color[] {Color.web("#f39c12"), Color.web("#e74c3c"), Color.web("#2ecc71")}));
+        charts.add(new TimeSeriesChart("Chip", metricHistory,
+            new MetricHistory.Series[] {MetricHistory.Series.AVG_TEMP, MetricHistory.Series.AVG_HYDROGEL, MetricHistory.Series.THRESHOLD},
+            new String[] {"temp", "hydrogel", "threshold"},
+            new Color[] {Color.web("#e74c3c"), Color.web("#1abc9c"), Color.web("#ecf0f1")}));
+        charts.add(new TimeSeriesChart("Queue", metricHistory,
+            new MetricHistory.Series[] {MetricHistory.Series.PENDING_TASKS},
+            new String[] {"pending tasks"},
+            new Color[] {Color.web("#3498db")}));
+        charts.add(new TimeSeriesChart("Trips", metricHistory,
+            new MetricHistory.Series[] {MetricHistory.Series.TRIPS},
+            new String[] {"per epoch"},
+            new Color[] {Color.web("#e74c3c")}));
+
+        HBox chartsPanel = new HBox(10);
+        chartsPanel.setPadding(new Insets(10, 0, 0, 0));
+        for (TimeSeriesChart chart : charts) {
+            HBox.setHgrow(chart, Priority.ALWAYS);
+            chartsPanel.getChildren().add(chart);
+        }
+        return chartsPanel;
+    }
+    
+    /**
+     * Switches between the node-per-runner, canvas and heatmap views. The node view is built
+     * on first use, since at large sizes building it at all is the expensive part.
+     */
+    private void showView(ViewMode mode) {
+        viewMode = mode;
+        switch (mode) {
+            case CANVAS:
+                root.setCenter(canvasView);
+                break;
+            case HEATMAP:
+                root.setCenter(heatmapView);
+                break;
+            default:
+                root.setCenter(scrollPane);
+        }
+        renderedSnapshot = null; // force a full redraw into the newly shown view
+    }
+
     private void toggleSimulation() {
         if (isRunning) {
             stopSimulation();
@@ -191,88 +451,194 @@ public class DataCenterGUI extends Application {
     }
     
     private void startSimulation() {
-        isRunning = true;
-        playPauseButton.setText("⏸ Pause");
-        stepButton.setDisable(true);
-        
-        simulationThread = new SimulationThread();
-        simulationThread.start();
+        showRunning(true, false);
+        submit(() -> {
+            simulationThread.running = true;
+            simulationThread.turbo = false;
+        });
+    }
+    
+    /**
+     * Runs epochs back to back on the simulation thread, publishing only about once a frame.
+     */
+    private void startTurbo() {
+        showRunning(true, true);
+        submit(() -> {
+            simulationThread.running = true;
+            simulationThread.turbo = true;
+        });
     }
     
     private void stopSimulation() {
-        isRunning = false;
-        playPauseButton.setText("▶ Play");
-        stepButton.setDisable(false);
-        
-        if (simulationThread != null) {
-            simulationThread.interrupt();
-        }
+        showRunning(false, false);
+        submit(() -> {
+            simulationThread.running = false;
+            simulationThread.turbo = false;
+        });
+    }
+    
+    private void showRunning(boolean running, boolean turbo) {
+        isRunning = running;
+        isTurbo = turbo;
+        playPauseButton.setText(running ? "⏸ Pause" : "▶ Play");
+        stepButton.setDisable(running);
+        turboButton.setDisable(turbo);
+        if (!running) rateLabel.setText("0 epochs/s");
     }
     
     private void stepSimulation() {
-        currentEpoch++;
-        runEpochWithLogging();
-        updateVisualization();
+        submit(() -> simulationThread.advanceEpoch());
     }
     
     private void resetSimulation() {
         stopSimulation();
-        currentEpoch = 0;
-        initializeDataCenter();
-        dataCenterView.setDataCenter(dataCenter);
-        logArea.clear();
-        updateVisualization();
-        log("System reset");
+        submit(() -> {
+            simulationThread.currentEpoch = 0;
+            initializeDataCenter();
+            metricHistory.clear();
+            stateHistory.clear();
+            stateHistory.record(dataCenter, 0);
+            // Drops anything the old data center logged that has not been shown yet
+            Platform.runLater(() -> {
+                eventLog.clear();
+                log(EventLog.Type.CONTROL, "System reset");
+            });
+        });
     }
     
-    private void addRandomTasks() {
-        int numTasks = 5 + (int)(Math.random() * 10);
-        List<Task> newTasks = new ArrayList<>();
-        for (int i = 0; i < numTasks; i++) {
-            newTasks.add(new Task(Task.getNumberOfTasksCreated(), 3 + (int)(Math.random() * 5)));
+    /**
+     * Shows a past epoch, pausing first so the view stays put. Back at the newest epoch, goes live.
+     */
+    private void scrubTo(int epoch) {
+        EpochSnapshot latest = latestSnapshot.get();
+        if (epoch >= stateHistory.getNewestEpoch()) {
+            showLive();
+            return;
         }
-        dataCenter.addTasks(newTasks);
-        log("Added " + numTasks + " new tasks to the queue");
-        updateVisualization();
+        EpochSnapshot restored = stateHistory.restore(latest.getDataCenter(), epoch);
+        if (restored == null) return; // evicted since the slider range was last updated
+        if (isRunning) stopSimulation();
+        scrubbedSnapshot = restored;
+        liveButton.setDisable(false);
     }
     
-    private void runEpochWithLogging() {
-        log("=== Epoch " + currentEpoch + " ===");
-        dataCenter.runEpoch();
+    private void showLive() {
+        scrubbedSnapshot = null;
+        liveButton.setDisable(true);
     }
     
-    private void updateVisualization() {
-        Platform.runLater(() -> {
-            epochLabel.setText("Epoch: " + currentEpoch);
-            dataCenterView.update();
-            updateStats();
+    private void addRandomTasks() {
+        submit(() -> {
+            int numTasks = 5 + (int)(Math.random() * 10);
+            List<Task> newTasks = new ArrayList<>();
+            for (int i = 0; i < numTasks; i++) {
+                newTasks.add(new Task(Task.getNumberOfTasksCreated(), 3 + (int)(Math.random() * 5)));
+            }
+            dataCenter.addTasks(newTasks);
+            log(EventLog.Type.TASKS, "Added " + numTasks + " new tasks to the queue");
         });
     }
-    
-    private void updateStats() {
-        int totalRunners = NUM_RUNNERS;
-        long sprinting = dataCenter.getRunners().stream().filter(r -> r.isSprinting()).count();
-        long recovering = dataCenter.getRunners().stream().filter(r -> !r.canSprint()).count();
-        long idle = dataCenter.getRunners().stream().filter(r -> r.getTotalWork() == 0).count();
-        int pendingTasks = dataCenter.getTasks().size();
-        
-        // Calculate average chip temperature and hydrogel state
-        double[] chipTemps = dataCenter.getChipTemps();
-        double[] hydrogelStates = dataCenter.getHydrogelStates();
-        
-        double avgTemp = 0.0;
-        double avgHydrogel = 0.0;
-        int overheatedChips = 0;
-        
-        for (int i = 0; i < chipTemps.length; i++) {
-            avgTemp += chipTemps[i];
-            avgHydrogel += hydrogelStates[i];
-            if (chipTemps[i] >= 1.0) {
-                overheatedChips++;
+
+    /**
+     * Queues an action to run on the simulation thread between epochs. Every command is
+     * followed by a fresh snapshot, so its effect shows up on the next frame.
+     */
+    private void submit(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Called every frame on the FX thread: flushes posted log events in one list change and
+     * draws the newest snapshot if it changed since the last frame.
+     */
+    private void render() {
+        if (eventLog.drain()) {
+            logView.scrollTo(eventLog.getItems().size() - 1);
+        }
+        
+        // Charts cost O(history) to downsample, so they refresh on their own, slower clock
+        long now = System.nanoTime();
+        long samples = metricHistory.getRecorded();
+        if (samples != chartedSamples && now - lastChartDraw >= CHART_INTERVAL_NS) {
+            for (TimeSeriesChart chart : charts) {
+                chart.redraw();
             }
+            chartedSamples = samples;
+            lastChartDraw = now;
+        }
+
+        EpochProfiler.Summary profile = latestProfile.get();
+        if (profile != renderedProfile) {
+            profileLabel.setText(profile.format());
+            renderedProfile = profile;
         }
-        avgTemp /= chipTemps.length;
-        avgHydrogel /= hydrogelStates.length;
+
+        EpochSnapshot latest = latestSnapshot.get();
+        if (scrubbedSnapshot != null && scrubbedSnapshot.getDataCenter() != latest.getDataCenter()) {
+            showLive(); // reset while rewound: the old history is gone
+        }
+        updateTimeline();
+        EpochSnapshot snapshot = scrubbedSnapshot != null ? scrubbedSnapshot : latest;
+        if (snapshot == renderedSnapshot) return;
+        if (scrubbedSnapshot != null) {
+            epochLabel.setText("Epoch: " + snapshot.getEpoch() + " (rewound from " + latest.getEpoch() + ")");
+        } else {
+            epochLabel.setText("Epoch: " + snapshot.getEpoch());
+            updateRate(snapshot.getEpoch());
+        }
+        // Only the runners that changed need redrawing, unless a snapshot was skipped or the view was reset
+        boolean full = !snapshot.followsDirectly(renderedSnapshot);
+        if (viewMode == ViewMode.CANVAS) {
+            canvasView.update(snapshot, full);
+        } else if (viewMode == ViewMode.HEATMAP) {
+            heatmapView.update(snapshot); // cost is bounded by the viewport, so it always redraws fully
+        } else {
+            if (dataCenterView == null) {
+                dataCenterView = new DataCenterView(snapshot.getDataCenter(), PROCS_PER_SERVER, SERVERS_PER_RACK);
+                scrollPane.setContent(dataCenterView);
+            } else if (renderedSnapshot == null || snapshot.getDataCenter() != renderedSnapshot.getDataCenter()) {
+                dataCenterView.setDataCenter(snapshot.getDataCenter()); // reset or view switch: rebuild the layout
+            }
+            dataCenterView.update(snapshot, full);
+        }
+        updateStats(snapshot);
+        renderedSnapshot = snapshot;
+    }
+    
+    /**
+     * Keeps the rewind slider's range on the epochs the history still holds, and its thumb on
+     * the newest epoch while live.
+     */
+    private void updateTimeline() {
+        int oldest = Math.max(0, stateHistory.getOldestEpoch());
+        int newest = Math.max(oldest, stateHistory.getNewestEpoch());
+        updatingTimeline = true;
+        timelineSlider.setMin(oldest);
+        timelineSlider.setMax(newest);
+        if (scrubbedSnapshot == null) {
+            timelineSlider.setValue(newest);
+        }
+        updatingTimeline = false;
+    }
+    
+    private void updateRate(long epoch) {
+        long now = System.nanoTime();
+        if (epoch < rateEpoch) {
+            rateEpoch = epoch; // reset
+            rateTime = now;
+        } else if (now - rateTime >= RATE_INTERVAL_NS) {
+            double rate = (epoch - rateEpoch) / ((now - rateTime) / 1e9);
+            rateLabel.setText(String.format("%,.0f epochs/s", rate));
+            rateEpoch = epoch;
+            rateTime = now;
+        }
+    }
+    
+    private void updateStats(EpochSnapshot snapshot) {
+        int totalRunners = snapshot.getNumRunners();
+        int pendingTasks = snapshot.getPendingTasks();
+        double avgTemp = snapshot.getTempSum() / totalRunners;
+        double avgHydrogel = snapshot.getHydrogelSum() / totalRunners;
         
         String stats = String.format(
             "Runners: %d\n" +
@@ -282,39 +648,138 @@ public class DataCenterGUI extends Application {
             "\nPending Tasks: %d\n" +
             "\nAvg Chip Temp: %.2f\n" +
             "Overheated Chips: %d\n" +
-            "Avg Hydrogel: %.2f",
-            totalRunners, sprinting, recovering, idle, pendingTasks, 
-            avgTemp, overheatedChips, avgHydrogel
+            "Avg Hydrogel: %.2f\n" +
+            "\nWork Completed: %d\n" +
+            "Thermal Trips: %d\n" +
+            "Power Trips: %d\n" +
+            "Trips Avoided: %d",
+            totalRunners, snapshot.getSprintingCount(), snapshot.getRecoveringCount(),
+            snapshot.getIdleCount(), pendingTasks, avgTemp, snapshot.getOverheatedCount(), avgHydrogel,
+            snapshot.getWorkCompleted(), snapshot.getThermalTrips(),
+            snapshot.getPowerTrips(), snapshot.getTripsAvoided()
         );
         
         statsLabel.setText(stats);
-        thresholdLabel.setText(String.format("Sprint Threshold: %.4f", dataCenter.getCurrentThreshold()));
+        thresholdLabel.setText(String.format("Sprint Threshold: %.4f", snapshot.getThreshold()));
 
-        int epochsUntilRecompute = dataCenter.getEpochsUntilRecompute();
-        nextRecomputeLabel.setText("Next Recompute: " + epochsUntilRecompute + " epoch(s)");
+        int epochsUntilRecompute = snapshot.getEpochsUntilRecompute();
+        nextRecomputeLabel.setText("Next Recompute: <= " + epochsUntilRecompute + " epoch(s)");
     }
     
-    private void log(String message) {
-        Platform.runLater(() -> {
-            logArea.appendText(message + "\n");
-            logArea.setScrollTop(Double.MAX_VALUE);
-        });
+    /**
+     * Safe from any thread; events are appended to the log view on the next frame.
+     */
+    private void log(EventLog.Type type, String message) {
+        eventLog.post(type, message);
     }
     
+    /**
+     * Owns the data center: runs epochs at the configured speed while playing, executes
+     * commands from the FX thread between epochs, and publishes a snapshot after each.
+     */
     private class SimulationThread extends Thread {
+        // Only touched on this thread
+        private boolean running = false;
+        private boolean turbo = false;
+        private StopCondition stopCondition = StopCondition.NEVER;
+        private long stopEpoch = Long.MAX_VALUE;
+        private int currentEpoch = 0;
+        private long sequence = 0;
+        private long lastProfileAt;
+
+        SimulationThread() {
+            super("simulation");
+            setDaemon(true);
+        }
+
         @Override
         public void run() {
-            while (isRunning && !isInterrupted()) {
-                try {
-                    Thread.sleep(simulationSpeed);
-                    Platform.runLater(() -> {
-                        currentEpoch++;
-                        runEpochWithLogging();
-                        updateVisualization();
-                    });
-                } catch (InterruptedException e) {
-                    break;
+            long nextEpochAt = System.nanoTime();
+            try {
+                while (!isInterrupted()) {
+                    long wait = running ? Math.max(0, nextEpochAt - System.nanoTime()) : TimeUnit.MILLISECONDS.toNanos(100);
+                    Runnable command = commands.poll(wait, TimeUnit.NANOSECONDS);
+                    if (command != null) {
+                        long published = sequence;
+                        command.run();
+                        if (sequence == published) publish(0); // a step already published its epoch
+                        continue;
+                    }
+                    if (running && turbo) {
+                        // Flat out until a command arrives, a stop condition hits, or it is time to publish
+                        long publishAt = System.nanoTime() + TURBO_PUBLISH_NS;
+                        int ran = 0;
+                        do {
+                            runOneEpoch();
+                            ran++;
+                        } while (running && commands.isEmpty() && System.nanoTime() < publishAt);
+                        publish(ran);
+                        continue;
+                    }
+                    if (running && System.nanoTime() >= nextEpochAt) {
+                        advanceEpoch();
+                        nextEpochAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(simulationSpeed);
+                    }
                 }
+            } catch (InterruptedException e) {
+                // window closed
+            }
+        }
+
+        void advanceEpoch() {
+            runOneEpoch();
+            publish(1);
+        }
+
+        /**
+         * Runs one epoch, records it, and pauses if the stop condition is met. Does not publish.
+         */
+        private void runOneEpoch() {
+            currentEpoch++;
+            if (!turbo) {
+                log(EventLog.Type.EPOCH, "=== Epoch " + currentEpoch + " ===");
+            }
+            long powerTrips = dataCenter.getPowerTrips();
+            long thermalTrips = dataCenter.getThermalTrips();
+            dataCenter.runEpoch();
+            if (dataCenter.getPowerTrips() > powerTrips) {
+                log(EventLog.Type.TRIP, "Epoch " + currentEpoch + ": " + (dataCenter.getPowerTrips() - powerTrips) + " rack power trip(s)");
+            }
+            if (dataCenter.getThermalTrips() > thermalTrips) {
+                log(EventLog.Type.TRIP, "Epoch " + currentEpoch + ": " + (dataCenter.getThermalTrips() - thermalTrips) + " thermal trip(s)");
+            }
+            metricHistory.record(dataCenter);
+            stateHistory.record(dataCenter, currentEpoch);
+
+            boolean stop;
+            switch (stopCondition) {
+                case POWER_TRIP:
+                    stop = dataCenter.getPowerTrips() > powerTrips;
+                    break;
+                case THERMAL_TRIP:
+                    stop = dataCenter.getThermalTrips() > thermalTrips;
+                    break;
+                case EPOCH:
+                    // Only on reaching it, so Play or Turbo past the stop epoch keeps running
+                    stop = currentEpoch == stopEpoch;
+                    break;
+                default:
+                    stop = false;
+            }
+            if (stop && running) {
+                running = false;
+                turbo = false;
+                log(EventLog.Type.CONTROL, "Stopped at epoch " + currentEpoch + " (" + stopCondition + ")");
+                Platform.runLater(() -> showRunning(false, false));
+            }
+        }
+
+        private void publish(int epochsRan) {
+            latestSnapshot.set(EpochSnapshot.capture(dataCenter, currentEpoch, ++sequence, epochsRan));
+            long now = System.nanoTime();
+            if (epochsRan > 0 && now - lastProfileAt >= PROFILE_INTERVAL_NS) {
+                latestProfile.set(dataCenter.getProfiler().summarize());
+                lastProfileAt = now;
             }
         }
     }
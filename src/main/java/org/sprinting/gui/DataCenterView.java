@@ -15,10 +15,13 @@ import java.util.List;
  */
 public class DataCenterView extends VBox {
     
-    private DataCenter dataCenter;
+    private DataCenter dataCenter; // read for its fixed runner layout only; state comes from snapshots
     private int procsPerServer;
     private int serversPerRack;
     private List<RackPanel> rackPanels;
+    private TaskRunnerPanel[] runnerPanels = new TaskRunnerPanel[0]; // indexed by runner id
+    private boolean[] rackTouched = new boolean[0];
+    private EpochSnapshot shownSnapshot; // the last snapshot drawn; tooltips read it when shown
     
     public DataCenterView(DataCenter dataCenter, int procsPerServer, int serversPerRack) {
         this.dataCenter = dataCenter;
@@ -54,12 +57,22 @@ public class DataCenterView extends VBox {
         
         for (int rackId = 0; rackId < numRacks; rackId++) {
             List<TaskRunner> rackRunners = getRunnersForRack(rackId);
-            RackPanel rackPanel = new RackPanel(rackId, rackRunners, procsPerServer, serversPerRack, dataCenter);
+            RackPanel rackPanel = new RackPanel(rackId, rackRunners, procsPerServer, serversPerRack, () -> shownSnapshot);
             rackPanels.add(rackPanel);
             racksContainer.getChildren().add(rackPanel);
         }
         
         getChildren().add(racksContainer);
+        
+        runnerPanels = new TaskRunnerPanel[dataCenter.getRunners().size()];
+        for (RackPanel rackPanel : rackPanels) {
+            for (ServerPanel serverPanel : rackPanel.getServerPanels()) {
+                for (TaskRunnerPanel runnerPanel : serverPanel.getRunnerPanels()) {
+                    runnerPanels[runnerPanel.getRunnerId()] = runnerPanel;
+                }
+            }
+        }
+        rackTouched = new boolean[numRacks];
     }
     
     private List<TaskRunner> getRunnersForRack(int rackId) {
@@ -72,9 +85,32 @@ public class DataCenterView extends VBox {
         return rackRunners;
     }
     
-    public void update() {
-        for (RackPanel rackPanel : rackPanels) {
-            rackPanel.update();
+    /**
+     * Redraws every panel when {@code full} is set; otherwise only the runners in the
+     * snapshot's change list, plus the power bar of racks where a runner changed state.
+     */
+    public void update(EpochSnapshot snapshot, boolean full) {
+        shownSnapshot = snapshot;
+        if (full) {
+            for (RackPanel rackPanel : rackPanels) {
+                rackPanel.update(snapshot);
+            }
+            return;
+        }
+        
+        for (int k = 0; k < snapshot.getChangedRunnerCount(); k++) {
+            int id = snapshot.getChangedRunner(k);
+            int changes = snapshot.getChangeFlags(k);
+            runnerPanels[id].update(snapshot, changes);
+            if ((changes & DataCenter.CHANGE_STATE) != 0) {
+                rackTouched[dataCenter.getRunners().get(id).getRackId()] = true;
+            }
+        }
+        for (int rack = 0; rack < rackTouched.length; rack++) {
+            if (rackTouched[rack]) {
+                rackPanels.get(rack).updatePower(snapshot);
+                rackTouched[rack] = false;
+            }
         }
     }
     
@@ -0,0 +1,383 @@
+package org.sprinting.gui;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+
+/**
+ * Immutable copy of everything the GUI draws for one epoch. Captured on the simulation thread
+ * right after an epoch runs and handed to the FX thread whole, so the view never reads the
+ * live model while it is being mutated.
+ */
+public final class EpochSnapshot {
+
+    private final DataCenter dataCenter; // identity only, for noticing a reset; never read for state
+    private final int epoch;
+    private final long sequence;         // consecutive per publisher, so a skipped snapshot is detectable
+
+    // Runners whose visible state changed since the previous snapshot; only complete when at
+    // most one epoch ran in between
+    private final boolean changesComplete;
+    private final int[] changedRunners;
+    private final byte[] changeFlags;
+
+    private final double[] chipTemps;
+    private final double[] hydrogelStates;
+    private final int[] totalWork;
+    private final boolean[] sprinting;
+    private final boolean[] canSprint;
+    private final int[] activeSlots;
+    private final int[] executionSlots;
+
+    // Data center totals, summed while copying so the view does not loop over the runners
+    private final int sprintingCount;
+    private final int recoveringCount;
+    private final int idleCount;
+    private final int overheatedCount;
+    private final double tempSum;
+    private final double hydrogelSum;
+
+    // Server and rack aggregates, as maintained by the data center
+    private final int maxRackSprints;
+    private final int[] serverSprinting;
+    private final int[] serverRecovering;
+    private final double[] serverMeanTemp;
+    private final int[] rackSprinting;
+    private final int[] rackRecovering;
+    private final double[] rackMeanTemp;
+
+    private final int pendingTasks;
+    private final double threshold;
+    private final int epochsUntilRecompute;
+    private final long workCompleted;
+    private final long thermalTrips;
+    private final long powerTrips;
+    private final long tripsAvoided;
+
+    private EpochSnapshot(DataCenter dataCenter, int epoch, long sequence, int epochsRan) {
+        this.dataCenter = dataCenter;
+        this.epoch = epoch;
+        this.sequence = sequence;
+
+        this.changesComplete = epochsRan <= 1;
+        int changed = epochsRan == 1 ? dataCenter.getChangedRunnerCount() : 0;
+        this.changedRunners = new int[changed];
+        this.changeFlags = new byte[changed];
+        for (int k = 0; k < changed; k++) {
+            int id = dataCenter.getChangedRunner(k);
+            changedRunners[k] = id;
+            changeFlags[k] = (byte) dataCenter.getRunnerChanges(id);
+        }
+
+        List<TaskRunner> runners = dataCenter.getRunners();
+        int n = runners.size();
+        this.chipTemps = dataCenter.getChipTemps().clone();
+        this.hydrogelStates = dataCenter.getHydrogelStates().clone();
+        this.totalWork = new int[n];
+        this.sprinting = new boolean[n];
+        this.canSprint = new boolean[n];
+        this.activeSlots = new int[n];
+        this.executionSlots = new int[n];
+        for (int i = 0; i < n; i++) {
+            TaskRunner runner = runners.get(i);
+            totalWork[i] = runner.getTotalWork();
+            sprinting[i] = runner.isSprinting();
+            canSprint[i] = runner.canSprint();
+            activeSlots[i] = runner.getActiveSlots();
+            executionSlots[i] = runner.getExecutionSlots();
+        }
+        int[] counts = countStates(sprinting, canSprint, totalWork, chipTemps);
+        this.sprintingCount = counts[0];
+        this.recoveringCount = counts[1];
+        this.idleCount = counts[2];
+        this.overheatedCount = counts[3];
+        this.tempSum = sum(chipTemps);
+        this.hydrogelSum = sum(hydrogelStates);
+
+        this.maxRackSprints = dataCenter.getMaxRackSprints();
+        int servers = dataCenter.getNumServers();
+        this.serverSprinting = new int[servers];
+        this.serverRecovering = new int[servers];
+        this.serverMeanTemp = new double[servers];
+        for (int s = 0; s < servers; s++) {
+            serverSprinting[s] = dataCenter.getServerSprinting(s);
+            serverRecovering[s] = dataCenter.getServerRecovering(s);
+            serverMeanTemp[s] = dataCenter.getServerMeanTemp(s);
+        }
+        int racks = dataCenter.getNumRacks();
+        this.rackSprinting = new int[racks];
+        this.rackRecovering = new int[racks];
+        this.rackMeanTemp = new double[racks];
+        for (int r = 0; r < racks; r++) {
+            rackSprinting[r] = dataCenter.getRackSprinting(r);
+            rackRecovering[r] = dataCenter.getRackRecovering(r);
+            rackMeanTemp[r] = dataCenter.getRackMeanTemp(r);
+        }
+
+        this.pendingTasks = dataCenter.getTasks().size();
+        this.threshold = dataCenter.getCurrentThreshold();
+        this.epochsUntilRecompute = dataCenter.getEpochsUntilRecompute();
+        this.workCompleted = dataCenter.getWorkCompleted();
+        this.thermalTrips = dataCenter.getThermalTrips();
+        this.powerTrips = dataCenter.getPowerTrips();
+        this.tripsAvoided = dataCenter.getTripsAvoided();
+    }
+
+    // Rebuilt from recorded per-runner state; server and rack aggregates are recomputed
+    private EpochSnapshot(DataCenter dataCenter, int epoch, double[] chipTemps, double[] hydrogelStates,
+                          int[] totalWork, boolean[] sprinting, boolean[] canSprint, int[] activeSlots,
+                          int[] executionSlots, int pendingTasks, double threshold, int epochsUntilRecompute,
+                          long workCompleted, long thermalTrips, long powerTrips, long tripsAvoided) {
+        this.dataCenter = dataCenter;
+        this.epoch = epoch;
+        this.sequence = Long.MIN_VALUE; // never directly follows, or is followed by, a live snapshot
+        this.changesComplete = false;
+        this.changedRunners = new int[0];
+        this.changeFlags = new byte[0];
+        this.chipTemps = chipTemps;
+        this.hydrogelStates = hydrogelStates;
+        this.totalWork = totalWork;
+        this.sprinting = sprinting;
+        this.canSprint = canSprint;
+        this.activeSlots = activeSlots;
+        this.executionSlots = executionSlots;
+        int[] counts = countStates(sprinting, canSprint, totalWork, chipTemps);
+        this.sprintingCount = counts[0];
+        this.recoveringCount = counts[1];
+        this.idleCount = counts[2];
+        this.overheatedCount = counts[3];
+        this.tempSum = sum(chipTemps);
+        this.hydrogelSum = sum(hydrogelStates);
+
+        this.maxRackSprints = dataCenter.getMaxRackSprints();
+        int procsPerServer = dataCenter.getProcsPerServer();
+        int serversPerRack = dataCenter.getServersPerRack();
+        this.serverSprinting = new int[dataCenter.getNumServers()];
+        this.serverRecovering = new int[serverSprinting.length];
+        this.serverMeanTemp = new double[serverSprinting.length];
+        this.rackSprinting = new int[dataCenter.getNumRacks()];
+        this.rackRecovering = new int[rackSprinting.length];
+        this.rackMeanTemp = new double[rackSprinting.length];
+        int[] rackSize = new int[rackSprinting.length];
+        for (int i = 0; i < chipTemps.length; i++) {
+            int server = i / procsPerServer;
+            int rack = server / serversPerRack;
+            int sprint = canSprint[i] && sprinting[i] ? 1 : 0;
+            int recovering = canSprint[i] ? 0 : 1;
+            serverSprinting[server] += sprint;
+            serverRecovering[server] += recovering;
+            serverMeanTemp[server] += chipTemps[i];
+            rackSprinting[rack] += sprint;
+            rackRecovering[rack] += recovering;
+            rackMeanTemp[rack] += chipTemps[i];
+            rackSize[rack]++;
+        }
+        for (int server = 0; server < serverMeanTemp.length; server++) {
+            serverMeanTemp[server] /= Math.min(chipTemps.length, (server + 1) * procsPerServer) - server * procsPerServer;
+        }
+        for (int rack = 0; rack < rackMeanTemp.length; rack++) {
+            rackMeanTemp[rack] /= Math.max(1, rackSize[rack]);
+        }
+
+        this.pendingTasks = pendingTasks;
+        this.threshold = threshold;
+        this.epochsUntilRecompute = epochsUntilRecompute;
+        this.workCompleted = workCompleted;
+        this.thermalTrips = thermalTrips;
+        this.powerTrips = powerTrips;
+        this.tripsAvoided = tripsAvoided;
+    }
+
+    // Sprinting, recovering, idle and overheated (temperature at or above 1) runners
+    private static int[] countStates(boolean[] sprinting, boolean[] canSprint, int[] totalWork, double[] chipTemps) {
+        int[] counts = new int[4];
+        for (int i = 0; i < totalWork.length; i++) {
+            if (sprinting[i]) counts[0]++;
+            if (!canSprint[i]) counts[1]++;
+            if (totalWork[i] == 0) counts[2]++;
+            if (chipTemps[i] >= 1.0) counts[3]++;
+        }
+        return counts;
+    }
+
+    private static double sum(double[] values) {
+        double total = 0.0;
+        for (double v : values) total += v;
+        return total;
+    }
+
+    /**
+     * Snapshot of a past epoch rebuilt by {@link StateHistory}. The arrays are taken over, not
+     * copied; dataCenter is only used for its layout and identity.
+     */
+    static EpochSnapshot restored(DataCenter dataCenter, int epoch, double[] chipTemps, double[] hydrogelStates,
+                                  int[] totalWork, boolean[] sprinting, boolean[] canSprint, int[] activeSlots,
+                                  int[] executionSlots, int pendingTasks, double threshold, int epochsUntilRecompute,
+                                  long workCompleted, long thermalTrips, long powerTrips, long tripsAvoided) {
+        return new EpochSnapshot(dataCenter, epoch, chipTemps, hydrogelStates, totalWork, sprinting, canSprint,
+                activeSlots, executionSlots, pendingTasks, threshold, epochsUntilRecompute,
+                workCompleted, thermalTrips, powerTrips, tripsAvoided);
+    }
+
+    /**
+     * Copies the current state; must be called on the thread that owns the data center.
+     * epochsRan is the number of epochs run since the previous snapshot: the data center's
+     * change flags describe this snapshot's changes only if it is exactly one.
+     */
+    public static EpochSnapshot capture(DataCenter dataCenter, int epoch, long sequence, int epochsRan) {
+        return new EpochSnapshot(dataCenter, epoch, sequence, epochsRan);
+    }
+
+    /**
+     * True if this snapshot's change list fully describes the difference from {@code previous}:
+     * same data center, no snapshot skipped in between, and at most one epoch since it.
+     */
+    public boolean followsDirectly(EpochSnapshot previous) {
+        return changesComplete && previous != null && previous.dataCenter == dataCenter
+                && previous.sequence + 1 == sequence;
+    }
+
+    public int getChangedRunnerCount() {
+        return changedRunners.length;
+    }
+
+    public int getChangedRunner(int k) {
+        return changedRunners[k];
+    }
+
+    public int getChangeFlags(int k) {
+        return changeFlags[k];
+    }
+
+    public DataCenter getDataCenter() {
+        return dataCenter;
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+
+    public int getNumRunners() {
+        return totalWork.length;
+    }
+
+    public double getChipTemp(int runnerId) {
+        return chipTemps[runnerId];
+    }
+
+    public double getHydrogelState(int runnerId) {
+        return hydrogelStates[runnerId];
+    }
+
+    public int getTotalWork(int runnerId) {
+        return totalWork[runnerId];
+    }
+
+    public boolean isSprinting(int runnerId) {
+        return sprinting[runnerId];
+    }
+
+    public boolean canSprint(int runnerId) {
+        return canSprint[runnerId];
+    }
+
+    public int getActiveSlots(int runnerId) {
+        return activeSlots[runnerId];
+    }
+
+    public int getExecutionSlots(int runnerId) {
+        return executionSlots[runnerId];
+    }
+
+    public int getSprintingCount() {
+        return sprintingCount;
+    }
+
+    public int getRecoveringCount() {
+        return recoveringCount;
+    }
+
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Runners whose chip temperature is at or above 1.
+     */
+    public int getOverheatedCount() {
+        return overheatedCount;
+    }
+
+    public double getTempSum() {
+        return tempSum;
+    }
+
+    public double getHydrogelSum() {
+        return hydrogelSum;
+    }
+
+    public int getMaxRackSprints() {
+        return maxRackSprints;
+    }
+
+    public int getNumServers() {
+        return serverSprinting.length;
+    }
+
+    public int getServerSprinting(int serverId) {
+        return serverSprinting[serverId];
+    }
+
+    public int getServerRecovering(int serverId) {
+        return serverRecovering[serverId];
+    }
+
+    public double getServerMeanTemp(int serverId) {
+        return serverMeanTemp[serverId];
+    }
+
+    public int getNumRacks() {
+        return rackSprinting.length;
+    }
+
+    public int getRackSprinting(int rackId) {
+        return rackSprinting[rackId];
+    }
+
+    public int getRackRecovering(int rackId) {
+        return rackRecovering[rackId];
+    }
+
+    public double getRackMeanTemp(int rackId) {
+        return rackMeanTemp[rackId];
+    }
+
+    public int getPendingTasks() {
+        return pendingTasks;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public int getEpochsUntilRecompute() {
+        return epochsUntilRecompute;
+    }
+
+    public long getWorkCompleted() {
+        return workCompleted;
+    }
+
+    public long getThermalTrips() {
+        return thermalTrips;
+    }
+
+    public long getPowerTrips() {
+        return powerTrips;
+    }
+
+    public long getTripsAvoided() {
+        return tripsAvoided;
+    }
+}
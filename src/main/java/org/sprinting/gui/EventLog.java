@@ -0,0 +1,133 @@
+package org.sprinting.gui;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded event log for the GUI. Any thread may post; the FX thread drains once per frame.
+ *
+ * Memory is constant: posted events wait in a hand-off queue that drops its oldest entries
+ * beyond the capacity, and drained events go into a fixed-size ring that overwrites the oldest.
+ * The list shown by the ListView holds only events of the enabled types and is trimmed to the
+ * same capacity, and it changes at most once per frame.
+ */
+public class EventLog {
+
+    public enum Type { EPOCH, TRIP, TASKS, CONTROL }
+
+    private static final class Event {
+        final Type type;
+        final String message;
+
+        Event(Type type, String message) {
+            this.type = type;
+            this.message = message;
+        }
+    }
+
+    private final int capacity;
+
+    // Hand-off from any thread
+    private final ConcurrentLinkedQueue<Event> posted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger postedCount = new AtomicInteger();
+
+    // FX thread only
+    private final Event[] ring;
+    private int head;  // index of the oldest event
+    private int size;
+    private final EnumSet<Type> shown = EnumSet.allOf(Type.class);
+    private final ObservableList<String> items = FXCollections.observableArrayList();
+    private final List<String> batch = new ArrayList<>();
+
+    public EventLog(int capacity) {
+        this.capacity = capacity;
+        this.ring = new Event[capacity];
+    }
+
+    /**
+     * Safe from any thread; the event shows up on the next drain.
+     */
+    public void post(Type type, String message) {
+        posted.add(new Event(type, message));
+        // Nobody is draining fast enough: drop the oldest rather than grow
+        if (postedCount.incrementAndGet() > capacity && posted.poll() != null) {
+            postedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Moves posted events into the ring and appends the visible ones to the list in one
+     * change. FX thread only; returns true if the list changed.
+     */
+    public boolean drain() {
+        Event event;
+        while ((event = posted.poll()) != null) {
+            postedCount.decrementAndGet();
+            ring[(head + size) % capacity] = event;
+            if (size < capacity) {
+                size++;
+            } else {
+                head = (head + 1) % capacity;
+            }
+            if (shown.contains(event.type)) batch.add(event.message);
+        }
+        if (batch.isEmpty()) return false;
+
+        int overflow = items.size() + batch.size() - capacity;
+        if (overflow > 0) {
+            // Trimming and appending as separate calls would fire two list changes; rebuild
+            // the kept tail plus the batch and replace the contents in one
+            batch.addAll(0, items.subList(Math.min(overflow, items.size()), items.size()));
+            items.setAll(batch.subList(batch.size() - capacity, batch.size()));
+        } else {
+            items.addAll(batch);
+        }
+        batch.clear();
+        return true;
+    }
+
+    /**
+     * Shows or hides one event type, refilling the list from the ring. FX thread only.
+     */
+    public void setShown(Type type, boolean visible) {
+        if (visible) {
+            shown.add(type);
+        } else {
+            shown.remove(type);
+        }
+        for (int i = 0; i < size; i++) {
+            Event e = ring[(head + i) % capacity];
+            if (shown.contains(e.type)) batch.add(e.message);
+        }
+        items.setAll(batch);
+        batch.clear();
+    }
+
+    /**
+     * Drops everything, including events posted but not yet drained. FX thread only.
+     */
+    public void clear() {
+        while (posted.poll() != null) {
+            postedCount.decrementAndGet();
+        }
+        Arrays.fill(ring, null);
+        head = 0;
+        size = 0;
+        items.clear();
+    }
+
+    public boolean isShown(Type type) {
+        return shown.contains(type);
+    }
+
+    public ObservableList<String> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,326 @@
+package org.sprinting.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * Zoomable level-of-detail heatmap of the data center. Racks are tiles laid out in a
+ * near-square grid; inside a tile each row is a server and each column a processor.
+ *
+ * Zoomed out, every rack is one cell coloured by its aggregate (sprinters against the rack
+ * limit, mean temperature, or share in recovery); zooming in switches to one cell per server
+ * and then per chip. Aggregates come from the snapshot, which copies the data center's
+ * incrementally maintained server and rack sums. Only cells inside the viewport are written,
+ * at the coarsest level that still gives each cell a few pixels, so drawing cost is bounded by
+ * the screen size (or the rack count, once racks shrink below a pixel) rather than the runner
+ * count.
+ *
+ * Scroll to zoom around the cursor, drag to pan, double-click to fit.
+ */
+public class HeatmapView extends Pane {
+
+    public enum Metric { POWER, TEMPERATURE, RECOVERY }
+
+    private enum Level { RACK, SERVER, CHIP }
+
+    // Pixels per chip at which finer levels are shown
+    private static final double CHIP_SCALE = 4.0;
+    private static final double SERVER_SCALE = 1.5;
+    private static final double MAX_SCALE = 64.0;
+
+    private static final int EMPTY = 0xFF1A1A1A;
+    private static final int OVER_LIMIT = 0xFF8E44AD; // rack above its sprint power limit
+
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+    private final int procsPerServer;
+    private final int serversPerRack;
+    private Metric metric = Metric.POWER;
+
+    private EpochSnapshot snapshot;
+    private int numRunners = -1;
+    private int racksPerRow;
+    private int rackRows;
+
+    // Viewport: world units are chips, (offsetX, offsetY) is the world point at the top-left
+    private double scale = 1.0;
+    private double offsetX;
+    private double offsetY;
+    private double dragX;
+    private double dragY;
+    private boolean fitted; // whether the viewport has been fitted to a laid-out canvas
+
+    private int[] pixels = new int[0];
+    private WritableImage image;
+
+    public HeatmapView(int procsPerServer, int serversPerRack) {
+        this.procsPerServer = procsPerServer;
+        this.serversPerRack = serversPerRack;
+        setStyle("-fx-background-color: #1a1a1a;");
+        getChildren().add(canvas);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener(obs -> resized());
+        canvas.heightProperty().addListener(obs -> resized());
+
+        tooltip.setShowDelay(Duration.millis(100));
+        Tooltip.install(canvas, tooltip);
+        canvas.setOnMouseMoved(e -> tooltip.setText(describeAt(e.getX(), e.getY())));
+
+        canvas.setOnScroll(e -> {
+            double factor = e.getDeltaY() > 0 ? 1.25 : 0.8;
+            double newScale = Math.max(fitScale() / 2, Math.min(MAX_SCALE, scale * factor));
+            // Keep the world point under the cursor fixed
+            offsetX += e.getX() / scale - e.getX() / newScale;
+            offsetY += e.getY() / scale - e.getY() / newScale;
+            scale = newScale;
+            draw();
+        });
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            offsetX -= (e.getX() - dragX) / scale;
+            offsetY -= (e.getY() - dragY) / scale;
+            dragX = e.getX();
+            dragY = e.getY();
+            draw();
+        });
+        canvas.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                fit();
+                draw();
+            }
+        });
+    }
+
+    public void update(EpochSnapshot snapshot) {
+        this.snapshot = snapshot;
+        if (snapshot.getNumRunners() != numRunners) {
+            layoutRacks(snapshot.getNumRunners());
+            fit();
+        }
+        draw();
+    }
+
+    private void resized() {
+        if (!fitted && snapshot != null) fit();
+        draw();
+    }
+
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+        draw();
+    }
+
+    /**
+     * Picks how many rack tiles go in a row so the whole grid is roughly square.
+     */
+    private void layoutRacks(int n) {
+        numRunners = n;
+        int racks = Math.max(1, (n + procsPerServer * serversPerRack - 1) / (procsPerServer * serversPerRack));
+        racksPerRow = Math.max(1, Math.min(racks,
+                (int) Math.ceil(Math.sqrt(racks * (double) serversPerRack / procsPerServer))));
+        rackRows = (racks + racksPerRow - 1) / racksPerRow;
+    }
+
+    private double worldWidth() {
+        return racksPerRow * procsPerServer;
+    }
+
+    private double worldHeight() {
+        return rackRows * serversPerRack;
+    }
+
+    private double fitScale() {
+        if (canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return 1.0;
+        return Math.min(canvas.getWidth() / worldWidth(), canvas.getHeight() / worldHeight());
+    }
+
+    private void fit() {
+        scale = Math.min(MAX_SCALE, fitScale());
+        offsetX = (worldWidth() - canvas.getWidth() / scale) / 2;
+        offsetY = (worldHeight() - canvas.getHeight() / scale) / 2;
+        fitted = canvas.getWidth() > 0 && canvas.getHeight() > 0;
+    }
+
+    private Level level() {
+        if (scale >= CHIP_SCALE) return Level.CHIP;
+        if (scale >= SERVER_SCALE) return Level.SERVER;
+        return Level.RACK;
+    }
+
+    // Cell size of a level in chips
+    private int cellWidth(Level level) {
+        return level == Level.CHIP ? 1 : procsPerServer;
+    }
+
+    private int cellHeight(Level level) {
+        return level == Level.RACK ? serversPerRack : 1;
+    }
+
+    private void draw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.web("#1a1a1a"));
+        gc.fillRect(0, 0, width, height);
+        if (snapshot == null || width <= 0 || height <= 0) return;
+
+        Level level = level();
+        int cw = cellWidth(level);
+        int ch = cellHeight(level);
+        int gridCols = racksPerRow * procsPerServer / cw;
+        int gridRows = rackRows * serversPerRack / ch;
+
+        // Visible cells only
+        int c0 = Math.max(0, (int) Math.floor(offsetX / cw));
+        int c1 = Math.min(gridCols, (int) Math.ceil((offsetX + width / scale) / cw));
+        int r0 = Math.max(0, (int) Math.floor(offsetY / ch));
+        int r1 = Math.min(gridRows, (int) Math.ceil((offsetY + height / scale) / ch));
+        if (c1 <= c0 || r1 <= r0) return;
+        int w = c1 - c0;
+        int h = r1 - r0;
+
+        if (pixels.length < w * h) pixels = new int[w * h];
+        if (image == null || image.getWidth() < w || image.getHeight() < h) {
+            image = new WritableImage(Math.max(w, image == null ? 0 : (int) image.getWidth()),
+                    Math.max(h, image == null ? 0 : (int) image.getHeight()));
+        }
+        for (int r = r0; r < r1; r++) {
+            int row = (r - r0) * w;
+            for (int c = c0; c < c1; c++) {
+                pixels[row + c - c0] = colorOf(level, c, r);
+            }
+        }
+        image.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), pixels, 0, w);
+
+        double dx = (c0 * cw - offsetX) * scale;
+        double dy = (r0 * ch - offsetY) * scale;
+        gc.setImageSmoothing(false);
+        gc.drawImage(image, 0, 0, w, h, dx, dy, w * cw * scale, h * ch * scale);
+
+        // Rack outlines once racks are big enough to tell apart
+        double rackW = procsPerServer * scale;
+        double rackH = serversPerRack * scale;
+        if (level != Level.RACK && rackW >= 8) {
+            gc.setStroke(Color.web("#1a1a1a"));
+            gc.setLineWidth(1.0);
+            int rc0 = Math.max(0, (int) Math.floor(offsetX / procsPerServer));
+            int rc1 = Math.min(racksPerRow, (int) Math.ceil((offsetX + width / scale) / procsPerServer));
+            int rr0 = Math.max(0, (int) Math.floor(offsetY / serversPerRack));
+            int rr1 = Math.min(rackRows, (int) Math.ceil((offsetY + height / scale) / serversPerRack));
+            for (int rr = rr0; rr < rr1; rr++) {
+                for (int rc = rc0; rc < rc1; rc++) {
+                    gc.strokeRect((rc * procsPerServer - offsetX) * scale, (rr * serversPerRack - offsetY) * scale,
+                            rackW, rackH);
+                }
+            }
+        }
+    }
+
+    // Rack id of a rack-grid position, or -1 past the last rack
+    private int rackAt(int rackCol, int rackRow) {
+        int rack = rackRow * racksPerRow + rackCol;
+        return rack < snapshot.getNumRacks() ? rack : -1;
+    }
+
+    // Id of the level's item in grid cell (c, r), or -1 for an empty cell
+    private int itemAt(Level level, int c, int r) {
+        switch (level) {
+            case RACK:
+                return rackAt(c, r);
+            case SERVER: {
+                int rack = rackAt(c, r / serversPerRack);
+                if (rack < 0) return -1;
+                int server = rack * serversPerRack + r % serversPerRack;
+                return server < snapshot.getNumServers() ? server : -1;
+            }
+            default: {
+                int rack = rackAt(c / procsPerServer, r / serversPerRack);
+                if (rack < 0) return -1;
+                int id = (rack * serversPerRack + r % serversPerRack) * procsPerServer + c % procsPerServer;
+                return id < snapshot.getNumRunners() ? id : -1;
+            }
+        }
+    }
+
+    private int serverSize(int server) {
+        return Math.min(snapshot.getNumRunners(), (server + 1) * procsPerServer) - server * procsPerServer;
+    }
+
+    private int rackSize(int rack) {
+        int perRack = procsPerServer * serversPerRack;
+        return Math.min(snapshot.getNumRunners(), (rack + 1) * perRack) - rack * perRack;
+    }
+
+    private int colorOf(Level level, int c, int r) {
+        int item = itemAt(level, c, r);
+        if (item < 0) return EMPTY;
+        switch (metric) {
+            case TEMPERATURE:
+                return heat(level == Level.CHIP ? snapshot.getChipTemp(item)
+                        : level == Level.SERVER ? snapshot.getServerMeanTemp(item)
+                        : snapshot.getRackMeanTemp(item));
+            case RECOVERY:
+                return heat(level == Level.CHIP ? (snapshot.canSprint(item) ? 0.0 : 1.0)
+                        : level == Level.SERVER ? snapshot.getServerRecovering(item) / (double) serverSize(item)
+                        : snapshot.getRackRecovering(item) / (double) rackSize(item));
+            default:
+                if (level == Level.RACK) {
+                    double load = snapshot.getRackSprinting(item) / (double) snapshot.getMaxRackSprints();
+                    return load > 1.0 ? OVER_LIMIT : heat(load);
+                }
+                return heat(level == Level.CHIP ? (snapshot.isSprinting(item) ? 1.0 : 0.0)
+                        : snapshot.getServerSprinting(item) / (double) serverSize(item));
+        }
+    }
+
+    // Dark blue through yellow to red for t in [0, 1]
+    private static int heat(double t) {
+        t = Math.max(0.0, Math.min(1.0, t));
+        return t < 0.5 ? blend(2 * t, 0x2C3E50, 0xF1C40F) : blend(2 * t - 1, 0xF1C40F, 0xE74C3C);
+    }
+
+    private static int blend(double t, int from, int to) {
+        int r = (int) (((from >> 16) & 0xFF) * (1 - t) + ((to >> 16) & 0xFF) * t);
+        int g = (int) (((from >> 8) & 0xFF) * (1 - t) + ((to >> 8) & 0xFF) * t);
+        int b = (int) ((from & 0xFF) * (1 - t) + (to & 0xFF) * t);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private String describeAt(double x, double y) {
+        if (snapshot == null) return "";
+        Level level = level();
+        double wx = offsetX + x / scale;
+        double wy = offsetY + y / scale;
+        if (wx < 0 || wy < 0) return "";
+        int c = (int) (wx / cellWidth(level));
+        int r = (int) (wy / cellHeight(level));
+        if (c >= racksPerRow * procsPerServer / cellWidth(level)) return "";
+        int item = itemAt(level, c, r);
+        if (item < 0) return "";
+        switch (level) {
+            case RACK:
+                return String.format("Rack %d\nSprinting: %d / %d\nMean Temp: %.2f\nRecovering: %d / %d",
+                        item, snapshot.getRackSprinting(item), snapshot.getMaxRackSprints(),
+                        snapshot.getRackMeanTemp(item), snapshot.getRackRecovering(item), rackSize(item));
+            case SERVER:
+                return String.format("Server %d (rack %d)\nSprinting: %d / %d\nMean Temp: %.2f\nRecovering: %d",
+                        item, item / serversPerRack, snapshot.getServerSprinting(item), serverSize(item),
+                        snapshot.getServerMeanTemp(item), snapshot.getServerRecovering(item));
+            default:
+                return String.format("Runner %d (server %d)\nSprinting: %s\nChip Temp: %.2f\nHydrogel: %.2f\nRecovering: %s",
+                        item, item / procsPerServer, snapshot.isSprinting(item) ? "Yes" : "No",
+                        snapshot.getChipTemp(item), snapshot.getHydrogelState(item),
+                        snapshot.canSprint(item) ? "No" : "Yes");
+        }
+    }
+}
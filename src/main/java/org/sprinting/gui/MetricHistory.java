@@ -0,0 +1,240 @@
+package org.sprinting.gui;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.TaskRunner;
+
+import java.util.List;
+
+/**
+ * Rolling per-epoch history of the aggregate metrics, one float ring buffer per series.
+ *
+ * The simulation thread records one sample per epoch; the FX thread reads the rings to draw
+ * charts. There is a single writer and samples are published through a volatile count, so the
+ * reader never locks; at worst the oldest few samples of a full ring are overwritten while a
+ * chart is being drawn, which only affects its leftmost pixels.
+ *
+ * {@link #downsample} reduces any stretch of history to a fixed number of points with
+ * Largest-Triangle-Three-Buckets, so drawing cost depends on the chart width, not the run length.
+ */
+public class MetricHistory {
+
+    public enum Series { SPRINTING, RECOVERING, IDLE, AVG_TEMP, AVG_HYDROGEL, PENDING_TASKS, TRIPS, THRESHOLD }
+
+    // Samples per min/max block; long histories are preselected to two points per block
+    private static final int BLOCK = 32;
+
+    private final int capacity;
+    private final float[][] values;
+    private final float[][] blockMin;
+    private final float[][] blockMax;
+    private final byte[][] blockMinAt;  // offset of the minimum within its block
+    private final byte[][] blockMaxAt;
+    private volatile long recorded; // samples ever written; the newest is at (recorded - 1) % capacity
+    private long firstEpoch;        // epoch of sample 0
+
+    // Writer-side scratch
+    private final float[] sample = new float[Series.values().length];
+    private long lastTrips;
+
+    // Reader-side scratch: the candidate points LTTB chooses from
+    private final double[] candidateX;
+    private final double[] candidateY;
+
+    /**
+     * Capacity is rounded up to a whole number of blocks.
+     */
+    public MetricHistory(int capacity) {
+        this.capacity = (capacity + BLOCK - 1) / BLOCK * BLOCK;
+        int series = Series.values().length;
+        int blocks = this.capacity / BLOCK;
+        this.values = new float[series][this.capacity];
+        this.blockMin = new float[series][blocks];
+        this.blockMax = new float[series][blocks];
+        this.blockMinAt = new byte[series][blocks];
+        this.blockMaxAt = new byte[series][blocks];
+        this.candidateX = new double[2 * blocks + BLOCK];
+        this.candidateY = new double[2 * blocks + BLOCK];
+    }
+
+    /**
+     * Appends one sample of every series. Simulation thread only, after each epoch.
+     */
+    public void record(DataCenter dataCenter) {
+        List<TaskRunner> runners = dataCenter.getRunners();
+        int n = runners.size();
+        int sprinting = 0, recovering = 0, idle = 0;
+        double temp = 0.0, hydrogel = 0.0;
+        double[] chipTemps = dataCenter.getChipTemps();
+        double[] hydrogelStates = dataCenter.getHydrogelStates();
+        for (int i = 0; i < n; i++) {
+            TaskRunner runner = runners.get(i);
+            if (runner.isSprinting()) sprinting++;
+            if (!runner.canSprint()) recovering++;
+            if (runner.getTotalWork() == 0) idle++;
+            temp += chipTemps[i];
+            hydrogel += hydrogelStates[i];
+        }
+        long trips = dataCenter.getPowerTrips() + dataCenter.getThermalTrips();
+
+        long count = recorded;
+        if (count == 0) {
+            firstEpoch = dataCenter.getEpoch();
+            lastTrips = trips;
+        }
+        sample[Series.SPRINTING.ordinal()] = sprinting;
+        sample[Series.RECOVERING.ordinal()] = recovering;
+        sample[Series.IDLE.ordinal()] = idle;
+        sample[Series.AVG_TEMP.ordinal()] = (float) (n == 0 ? 0.0 : temp / n);
+        sample[Series.AVG_HYDROGEL.ordinal()] = (float) (n == 0 ? 0.0 : hydrogel / n);
+        sample[Series.PENDING_TASKS.ordinal()] = dataCenter.getTasks().size();
+        sample[Series.TRIPS.ordinal()] = trips - lastTrips;
+        sample[Series.THRESHOLD.ordinal()] = (float) dataCenter.getCurrentThreshold();
+        lastTrips = trips;
+
+        int slot = (int) (count % capacity);
+        int block = slot / BLOCK;
+        int offset = slot % BLOCK;
+        for (int s = 0; s < sample.length; s++) {
+            float v = sample[s];
+            values[s][slot] = v;
+            if (offset == 0 || v < blockMin[s][block]) {
+                blockMin[s][block] = v;
+                blockMinAt[s][block] = (byte) offset;
+            }
+            if (offset == 0 || v > blockMax[s][block]) {
+                blockMax[s][block] = v;
+                blockMaxAt[s][block] = (byte) offset;
+            }
+        }
+        recorded = count + 1; // publishes the sample
+    }
+
+    /**
+     * Forgets all samples. Simulation thread only.
+     */
+    public void clear() {
+        recorded = 0;
+    }
+
+    /**
+     * Number of samples currently held, at most the capacity.
+     */
+    public int size() {
+        return (int) Math.min(recorded, capacity);
+    }
+
+    public long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Reduces the held samples of one series to at most {@code target} points and writes them
+     * to {@code xs} (epochs) and {@code ys}; returns the number of points written. Both arrays
+     * must hold at least {@code target} entries. FX thread only.
+     *
+     * Short histories go to LTTB as they are. Long ones are first preselected to the minimum
+     * and maximum of every block (MinMaxLTTB), which keeps the extremes LTTB would pick while
+     * cutting its input to 2 / BLOCK of the samples.
+     */
+    public int downsample(Series series, int target, double[] xs, double[] ys) {
+        long count = recorded;
+        int n = (int) Math.min(count, capacity);
+        long oldest = count - n;
+        float[] data = values[series.ordinal()];
+
+        int candidates = 0;
+        if (n <= candidateX.length) {
+            for (long i = oldest; i < count; i++) {
+                candidateX[candidates] = firstEpoch + i;
+                candidateY[candidates] = data[(int) (i % capacity)];
+                candidates++;
+            }
+        } else {
+            // Whole blocks only: a partial oldest block shares its slot with the block being written
+            int s = series.ordinal();
+            long firstBlock = (oldest + BLOCK - 1) / BLOCK;
+            long endBlock = count / BLOCK;
+            int blocks = capacity / BLOCK;
+            for (long b = firstBlock; b < endBlock; b++) {
+                int slot = (int) (b % blocks);
+                long base = firstEpoch + b * BLOCK;
+                int minAt = blockMinAt[s][slot];
+                int maxAt = blockMaxAt[s][slot];
+                int lowAt = Math.min(minAt, maxAt);
+                int highAt = Math.max(minAt, maxAt);
+                candidateX[candidates] = base + lowAt;
+                candidateY[candidates] = lowAt == minAt ? blockMin[s][slot] : blockMax[s][slot];
+                candidates++;
+                if (highAt != lowAt) {
+                    candidateX[candidates] = base + highAt;
+                    candidateY[candidates] = lowAt == minAt ? blockMax[s][slot] : blockMin[s][slot];
+                    candidates++;
+                }
+            }
+            // The block still being filled, sample by sample
+            for (long i = endBlock * BLOCK; i < count; i++) {
+                candidateX[candidates] = firstEpoch + i;
+                candidateY[candidates] = data[(int) (i % capacity)];
+                candidates++;
+            }
+        }
+        return lttb(candidateX, candidateY, candidates, target, xs, ys);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets over the first n points of (cx, cy).
+     */
+    private static int lttb(double[] cx, double[] cy, int n, int target, double[] xs, double[] ys) {
+        if (n <= target || target < 3) {
+            int m = Math.min(n, target);
+            for (int i = 0; i < m; i++) {
+                int src = n <= target ? i : (int) ((long) i * (n - 1) / Math.max(1, m - 1));
+                xs[i] = cx[src];
+                ys[i] = cy[src];
+            }
+            return m;
+        }
+
+        // First and last points are kept; the rest is split into target - 2 buckets and each
+        // bucket contributes the point forming the largest triangle with the previously chosen
+        // point and the average of the next bucket.
+        double every = (double) (n - 2) / (target - 2);
+        int a = 0;
+        int out = 0;
+        xs[out] = cx[0];
+        ys[out] = cy[0];
+        out++;
+        for (int b = 0; b < target - 2; b++) {
+            int avgStart = (int) ((b + 1) * every) + 1;
+            int avgEnd = Math.min((int) ((b + 2) * every) + 1, n);
+            double avgX = 0.0, avgY = 0.0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += cx[j];
+                avgY += cy[j];
+            }
+            avgX /= avgEnd - avgStart;
+            avgY /= avgEnd - avgStart;
+
+            int rangeStart = (int) (b * every) + 1;
+            int rangeEnd = (int) ((b + 1) * every) + 1;
+            double ax = cx[a];
+            double ay = cy[a];
+            double maxArea = -1.0;
+            int chosen = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (cy[j] - ay) - (ax - cx[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            xs[out] = cx[chosen];
+            ys[out] = cy[chosen];
+            out++;
+            a = chosen;
+        }
+        xs[out] = cx[n - 1];
+        ys[out] = cy[n - 1];
+        return out + 1;
+    }
+}
@@ -5,13 +5,13 @@ import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.*;
-import org.sprinting.model.DataCenter;
 import org.sprinting.model.TaskRunner;
 
 import java.util.ArrayList;
 import java.util.TreeMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Visual representation of a server rack containing multiple servers
@@ -22,25 +22,30 @@ public class RackPanel extends VBox {
     private List<TaskRunner> runners;
     private int procsPerServer;
     private int serversPerRack;
-    private DataCenter dataCenter;
     private List<ServerPanel> serverPanels;
     private Label powerLabel;
     private ProgressBar powerBar;
     
     private static final int MAX_RACK_SPRINTS = 6;
+    private static final String BORDER_OVER = rackStyle("#e74c3c");
+    private static final String BORDER_WARNING = rackStyle("#f39c12");
+    private static final String BORDER_NORMAL = rackStyle("#3498db");
     
-    public RackPanel(int rackId, List<TaskRunner> runners, int procsPerServer, int serversPerRack, DataCenter dataCenter) {
+    private Supplier<EpochSnapshot> currentSnapshot;
+    
+    public RackPanel(int rackId, List<TaskRunner> runners, int procsPerServer, int serversPerRack,
+                     Supplier<EpochSnapshot> currentSnapshot) {
         this.rackId = rackId;
+        this.currentSnapshot = currentSnapshot;
         this.runners = runners;
         this.procsPerServer = procsPerServer;
         this.serversPerRack = serversPerRack;
-        this.dataCenter = dataCenter;
         this.serverPanels = new ArrayList<>();
         
         setSpacing(10);
         setPadding(new Insets(15));
         setAlignment(Pos.TOP_CENTER);
-        setStyle("-fx-border-color: #3498db; -fx-border-width: 3; -fx-background-color: #2c3e50; -fx-background-radius: 10; -fx-border-radius: 10;");
+        setStyle(BORDER_NORMAL);
         setPrefWidth(400);
         
         buildPanel();
@@ -90,7 +95,7 @@ public class RackPanel extends VBox {
             int serverId = entry.getKey();
             List<TaskRunner> serverRunners = entry.getValue();
             
-            ServerPanel serverPanel = new ServerPanel(serverId, serverRunners, dataCenter);
+            ServerPanel serverPanel = new ServerPanel(serverId, serverRunners, currentSnapshot);
             serverPanels.add(serverPanel);
             
             serversGrid.add(serverPanel, col, row);
@@ -105,11 +110,22 @@ public class RackPanel extends VBox {
         getChildren().add(serversGrid);
     }
     
-    public void update() {
-        // Update power consumption
+    public void update(EpochSnapshot snapshot) {
+        updatePower(snapshot);
+        
+        // Update server panels
+        for (ServerPanel serverPanel : serverPanels) {
+            serverPanel.update(snapshot);
+        }
+    }
+    
+    /**
+     * Redraws only the rack's power indicator.
+     */
+    public void updatePower(EpochSnapshot snapshot) {
         int sprintersCount = 0;
         for (TaskRunner runner : runners) {
-            if (runner.isSprinting()) {
+            if (snapshot.isSprinting(runner.getId())) {
                 sprintersCount++;
             }
         }
@@ -121,18 +137,22 @@ public class RackPanel extends VBox {
         // Change color based on power level
         if (powerRatio > 1.0) {
             powerBar.setStyle("-fx-accent: #e74c3c;"); // Red - over limit
-            setStyle("-fx-border-color: #e74c3c; -fx-border-width: 3; -fx-background-color: #2c3e50; -fx-background-radius: 10; -fx-border-radius: 10;");
+            setStyle(BORDER_OVER);
         } else if (powerRatio > 0.8) {
             powerBar.setStyle("-fx-accent: #f39c12;"); // Orange - warning
-            setStyle("-fx-border-color: #f39c12; -fx-border-width: 3; -fx-background-color: #2c3e50; -fx-background-radius: 10; -fx-border-radius: 10;");
+            setStyle(BORDER_WARNING);
         } else {
             powerBar.setStyle("-fx-accent: #2ecc71;"); // Green - normal
-            setStyle("-fx-border-color: #3498db; -fx-border-width: 3; -fx-background-color: #2c3e50; -fx-background-radius: 10; -fx-border-radius: 10;");
-        }
-        
-        // Update server panels
-        for (ServerPanel serverPanel : serverPanels) {
-            serverPanel.update();
+            setStyle(BORDER_NORMAL);
         }
     }
+    
+    public List<ServerPanel> getServerPanels() {
+        return serverPanels;
+    }
+    
+    private static String rackStyle(String borderColor) {
+        return "-fx-border-color: " + borderColor + "; -fx-border-width: 3; -fx-background-color: #2c3e50; "
+                + "-fx-background-radius: 10; -fx-border-radius: 10;";
+    }
 }
\ No newline at end of file
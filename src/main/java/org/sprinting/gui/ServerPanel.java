@@ -4,11 +4,11 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.*;
-import org.sprinting.model.DataCenter;
 import org.sprinting.model.TaskRunner;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Visual representation of a server containing multiple task runners (processors)
@@ -17,13 +17,13 @@ public class ServerPanel extends VBox {
     
     private int serverId;
     private List<TaskRunner> runners;
-    private DataCenter dataCenter;
     private List<TaskRunnerPanel> runnerPanels;
+    private Supplier<EpochSnapshot> currentSnapshot;
     
-    public ServerPanel(int serverId, List<TaskRunner> runners, DataCenter dataCenter) {
+    public ServerPanel(int serverId, List<TaskRunner> runners, Supplier<EpochSnapshot> currentSnapshot) {
         this.serverId = serverId;
         this.runners = runners;
-        this.dataCenter = dataCenter;
+        this.currentSnapshot = currentSnapshot;
         this.runnerPanels = new ArrayList<>();
         
         setSpacing(8);
@@ -46,7 +46,7 @@ public class ServerPanel extends VBox {
         runnersBox.setAlignment(Pos.CENTER);
         
         for (TaskRunner runner : runners) {
-            TaskRunnerPanel runnerPanel = new TaskRunnerPanel(runner, dataCenter);
+            TaskRunnerPanel runnerPanel = new TaskRunnerPanel(runner, currentSnapshot);
             runnerPanels.add(runnerPanel);
             runnersBox.getChildren().add(runnerPanel);
         }
@@ -54,10 +54,14 @@ public class ServerPanel extends VBox {
         getChildren().add(runnersBox);
     }
     
-    public void update() {
+    public void update(EpochSnapshot snapshot) {
         // Update runner panels (which now handle their own temp and hydrogel)
         for (TaskRunnerPanel runnerPanel : runnerPanels) {
-            runnerPanel.update();
+            runnerPanel.update(snapshot);
         }
     }
+
+    public List<TaskRunnerPanel> getRunnerPanels() {
+        return runnerPanels;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package org.sprinting.gui;
+
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.TaskRunner;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded in-memory history of what the GUI shows, for rewinding to a past epoch.
+ *
+ * History is kept in segments: a full keyframe of every runner's displayed fields, followed by
+ * up to KEYFRAME_INTERVAL - 1 per-epoch deltas listing only the runners whose fields changed,
+ * all in primitive arrays. Seeking restores the segment's keyframe and replays its deltas up to
+ * the requested epoch. When the total size exceeds the byte budget the oldest segment is dropped.
+ *
+ * The simulation thread records after every epoch; the FX thread seeks. Both lock the history,
+ * which is held only for a record or a single seek.
+ */
+public class StateHistory {
+
+    private static final int KEYFRAME_INTERVAL = 64;
+    // Delta entry: runner id, temperature bits, hydrogel bits, total work, flags, active slots,
+    // execution slots. Slot counts get their own ints: they are not bounded by the model
+    private static final int ENTRY_INTS = 7;
+    private static final int SPRINTING = 1;
+    private static final int CAN_SPRINT = 2;
+
+    private static final class Segment {
+        final int firstEpoch;
+        // Keyframe
+        final float[] temps;
+        final float[] hydrogels;
+        final int[] work;
+        final int[] flags; // SPRINTING | CAN_SPRINT
+        final int[] activeSlots;
+        final int[] executionSlots;
+        // Deltas: epoch firstEpoch + k is pool[deltaEnd[k - 1], deltaEnd[k]) for k >= 1
+        final int[] deltaEnd = new int[KEYFRAME_INTERVAL];
+        int[] pool = new int[0];
+        int epochs = 1;
+        // Per-epoch totals, indexed by epoch - firstEpoch
+        final int[] pendingTasks = new int[KEYFRAME_INTERVAL];
+        final double[] threshold = new double[KEYFRAME_INTERVAL];
+        final int[] epochsUntilRecompute = new int[KEYFRAME_INTERVAL];
+        final long[] workCompleted = new long[KEYFRAME_INTERVAL];
+        final long[] thermalTrips = new long[KEYFRAME_INTERVAL];
+        final long[] powerTrips = new long[KEYFRAME_INTERVAL];
+        final long[] tripsAvoided = new long[KEYFRAME_INTERVAL];
+
+        Segment(int firstEpoch, float[] temps, float[] hydrogels, int[] work, int[] flags,
+                int[] activeSlots, int[] executionSlots) {
+            this.firstEpoch = firstEpoch;
+            this.temps = temps.clone();
+            this.hydrogels = hydrogels.clone();
+            this.work = work.clone();
+            this.flags = flags.clone();
+            this.activeSlots = activeSlots.clone();
+            this.executionSlots = executionSlots.clone();
+        }
+
+        long bytes() {
+            return 24L * temps.length + 4L * pool.length + 48L * KEYFRAME_INTERVAL;
+        }
+    }
+
+    private final long budgetBytes;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long bytes;
+
+    // The last recorded state, diffed against to build deltas
+    private float[] temps = new float[0];
+    private float[] hydrogels = new float[0];
+    private int[] work = new int[0];
+    private int[] flags = new int[0];
+    private int[] activeSlots = new int[0];
+    private int[] executionSlots = new int[0];
+
+    public StateHistory(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Records the data center's state as of {@code epoch}. Simulation thread only.
+     */
+    public synchronized void record(DataCenter dataCenter, int epoch) {
+        List<TaskRunner> runners = dataCenter.getRunners();
+        int n = runners.size();
+        Segment last = segments.peekLast();
+        boolean keyframe = last == null || last.epochs == KEYFRAME_INTERVAL
+                || epoch != last.firstEpoch + last.epochs || n != temps.length;
+        if (n != temps.length) {
+            temps = new float[n];
+            hydrogels = new float[n];
+            work = new int[n];
+            flags = new int[n];
+            activeSlots = new int[n];
+            executionSlots = new int[n];
+        }
+
+        double[] chipTemps = dataCenter.getChipTemps();
+        double[] hydrogelStates = dataCenter.getHydrogelStates();
+        Segment segment = keyframe ? null : last;
+        int used = keyframe ? 0 : (segment.epochs == 1 ? 0 : segment.deltaEnd[segment.epochs - 1]);
+        for (int i = 0; i < n; i++) {
+            TaskRunner runner = runners.get(i);
+            float t = (float) chipTemps[i];
+            float h = (float) hydrogelStates[i];
+            int w = runner.getTotalWork();
+            int f = (runner.isSprinting() ? SPRINTING : 0) | (runner.canSprint() ? CAN_SPRINT : 0);
+            int active = runner.getActiveSlots();
+            int slots = runner.getExecutionSlots();
+            if (!keyframe && (t != temps[i] || h != hydrogels[i] || w != work[i] || f != flags[i]
+                    || active != activeSlots[i] || slots != executionSlots[i])) {
+                if (used + ENTRY_INTS > segment.pool.length) {
+                    bytes -= segment.bytes();
+                    segment.pool = Arrays.copyOf(segment.pool, Math.max(4 * ENTRY_INTS, segment.pool.length * 2));
+                    bytes += segment.bytes();
+                }
+                segment.pool[used++] = i;
+                segment.pool[used++] = Float.floatToRawIntBits(t);
+                segment.pool[used++] = Float.floatToRawIntBits(h);
+                segment.pool[used++] = w;
+                segment.pool[used++] = f;
+                segment.pool[used++] = active;
+                segment.pool[used++] = slots;
+            }
+            temps[i] = t;
+            hydrogels[i] = h;
+            work[i] = w;
+            flags[i] = f;
+            activeSlots[i] = active;
+            executionSlots[i] = slots;
+        }
+
+        if (keyframe) {
+            segment = new Segment(epoch, temps, hydrogels, work, flags, activeSlots, executionSlots);
+            segments.addLast(segment);
+            bytes += segment.bytes();
+        } else {
+            segment.deltaEnd[segment.epochs] = used;
+            segment.epochs++;
+        }
+        int k = epoch - segment.firstEpoch;
+        segment.pendingTasks[k] = dataCenter.getTasks().size();
+        segment.threshold[k] = dataCenter.getCurrentThreshold();
+        segment.epochsUntilRecompute[k] = dataCenter.getEpochsUntilRecompute();
+        segment.workCompleted[k] = dataCenter.getWorkCompleted();
+        segment.thermalTrips[k] = dataCenter.getThermalTrips();
+        segment.powerTrips[k] = dataCenter.getPowerTrips();
+        segment.tripsAvoided[k] = dataCenter.getTripsAvoided();
+
+        while (bytes > budgetBytes && segments.size() > 1) {
+            bytes -= segments.removeFirst().bytes();
+        }
+    }
+
+    /**
+     * Drops everything, e.g. after a reset.
+     */
+    public synchronized void clear() {
+        segments.clear();
+        bytes = 0;
+        temps = new float[0];
+    }
+
+    /**
+     * Oldest epoch that can be restored, or -1 if nothing is held.
+     */
+    public synchronized int getOldestEpoch() {
+        Segment first = segments.peekFirst();
+        return first == null ? -1 : first.firstEpoch;
+    }
+
+    /**
+     * Newest recorded epoch, or -1 if nothing is held.
+     */
+    public synchronized int getNewestEpoch() {
+        Segment last = segments.peekLast();
+        return last == null ? -1 : last.firstEpoch + last.epochs - 1;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Rebuilds the view of {@code epoch} from its segment's keyframe and deltas, or returns
+     * null if that epoch is no longer held. dataCenter supplies the layout and identity.
+     */
+    public synchronized EpochSnapshot restore(DataCenter dataCenter, int epoch) {
+        Segment segment = null;
+        for (Iterator<Segment> it = segments.descendingIterator(); it.hasNext(); ) {
+            Segment candidate = it.next();
+            if (epoch >= candidate.firstEpoch && epoch < candidate.firstEpoch + candidate.epochs) {
+                segment = candidate;
+                break;
+            }
+        }
+        if (segment == null) return null;
+
+        int n = segment.temps.length;
+        float[] t = segment.temps.clone();
+        float[] h = segment.hydrogels.clone();
+        int[] w = segment.work.clone();
+        int[] f = segment.flags.clone();
+        int[] activeSlots = segment.activeSlots.clone();
+        int[] executionSlots = segment.executionSlots.clone();
+        int k = epoch - segment.firstEpoch;
+        int end = k == 0 ? 0 : segment.deltaEnd[k];
+        for (int e = 0; e < end; e += ENTRY_INTS) {
+            int id = segment.pool[e];
+            t[id] = Float.intBitsToFloat(segment.pool[e + 1]);
+            h[id] = Float.intBitsToFloat(segment.pool[e + 2]);
+            w[id] = segment.pool[e + 3];
+            f[id] = segment.pool[e + 4];
+            activeSlots[id] = segment.pool[e + 5];
+            executionSlots[id] = segment.pool[e + 6];
+        }
+
+        double[] chipTemps = new double[n];
+        double[] hydrogelStates = new double[n];
+        boolean[] sprinting = new boolean[n];
+        boolean[] canSprint = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            chipTemps[i] = t[i];
+            hydrogelStates[i] = h[i];
+            sprinting[i] = (f[i] & SPRINTING) != 0;
+            canSprint[i] = (f[i] & CAN_SPRINT) != 0;
+        }
+        return EpochSnapshot.restored(dataCenter, epoch, chipTemps, hydrogelStates, w, sprinting, canSprint,
+                activeSlots, executionSlots, segment.pendingTasks[k], segment.threshold[k],
+                segment.epochsUntilRecompute[k], segment.workCompleted[k], segment.thermalTrips[k],
+                segment.powerTrips[k], segment.tripsAvoided[k]);
+    }
+}
@@ -10,13 +10,42 @@ import javafx.scene.paint.Color;
 import org.sprinting.model.DataCenter;
 import org.sprinting.model.TaskRunner;
 
+import java.util.function.Supplier;
+
 /**
  * Visual representation of a single task runner (processor/core) with chip-level monitoring
  */
 public class TaskRunnerPanel extends VBox {
     
-    private TaskRunner runner;
-    private DataCenter dataCenter;
+    // Fixed state palette: style strings are built once, not per update
+    private static final String[] STATE_NAMES = {"IDLE", "WORKING", "SPRINTING", "RECOVERING"};
+    private static final String[] STATE_COLORS = {"#2ecc71", "#f1c40f", "#f39c12", "#e74c3c"};
+    private static final String[] BACKGROUND_STYLES = new String[STATE_COLORS.length];
+    private static final String[] INDICATOR_STYLES = new String[STATE_COLORS.length];
+    static {
+        for (int i = 0; i < STATE_COLORS.length; i++) {
+            BACKGROUND_STYLES[i] = String.format(
+                "-fx-border-color: #7f8c8d; -fx-border-width: 1; " +
+                "-fx-background-color: %s; " +
+                "-fx-background-radius: 3; -fx-border-radius: 3;",
+                STATE_COLORS[i]);
+            INDICATOR_STYLES[i] = String.format(
+                "-fx-background-color: %s; " +
+                "-fx-background-radius: 15; -fx-border-radius: 15; " +
+                "-fx-border-color: white; -fx-border-width: 2;",
+                darkenColor(STATE_COLORS[i]));
+        }
+    }
+    private static final String TEMP_LIMIT = "-fx-accent: #e74c3c;"; // Red - at limit (throttling)
+    private static final String TEMP_HOT = "-fx-accent: #f39c12;";   // Orange - hot
+    private static final String TEMP_WARM = "-fx-accent: #f1c40f;";  // Yellow - warm
+    private static final String TEMP_COOL = "-fx-accent: #3498db;";  // Blue - cool
+    private static final String GEL_DEPLETED = "-fx-accent: #e74c3c;"; // Red - depleted
+    private static final String GEL_LOW = "-fx-accent: #f39c12;";      // Orange - low
+    private static final String GEL_GOOD = "-fx-accent: #1abc9c;";     // Teal - good
+
+    private TaskRunner runner; // only its fixed ids are read; live state comes from snapshots
+    private final Supplier<EpochSnapshot> currentSnapshot; // for the tooltip, filled in when shown
     private Label idLabel;
     private Label workLabel;
     private Pane statusIndicator;
@@ -24,9 +53,9 @@ public class TaskRunnerPanel extends VBox {
     private ProgressBar hydrogelBar;
     private Tooltip tooltip;
     
-    public TaskRunnerPanel(TaskRunner runner, DataCenter dataCenter) {
+    public TaskRunnerPanel(TaskRunner runner, Supplier<EpochSnapshot> currentSnapshot) {
         this.runner = runner;
-        this.dataCenter = dataCenter;
+        this.currentSnapshot = currentSnapshot;
         
         setSpacing(3);
         setPadding(new Insets(8));
@@ -35,7 +64,6 @@ public class TaskRunnerPanel extends VBox {
         setStyle("-fx-border-color: #7f8c8d; -fx-border-width: 1; -fx-background-radius: 3; -fx-border-radius: 3;");
         
         buildPanel();
-        update();
     }
     
     private void buildPanel() {
@@ -66,102 +94,100 @@ public class TaskRunnerPanel extends VBox {
         
         // Tooltip for detailed info
         tooltip = new Tooltip();
+        tooltip.setOnShowing(e -> tooltip.setText(describe(currentSnapshot.get())));
         Tooltip.install(this, tooltip);
         
         getChildren().addAll(idLabel, statusIndicator, workLabel, tempBar, hydrogelBar);
     }
     
-    public void update() {
-        // Update work count
-        int totalWork = runner.getTotalWork();
-        workLabel.setText("W: " + totalWork);
-        
-        // Get chip-level data
-        double chipTemp = dataCenter.getChipTemp(runner.getId());
-        double hydrogelState = dataCenter.getHydrogelState(runner.getId());
-        
-        // Determine state and color
-        String state;
-        String color;
-        
-        if (!runner.canSprint()) {
-            // Recovering
-            state = "RECOVERING";
-            color = "#e74c3c"; // Red
-        } else if (runner.isSprinting()) {
-            // Sprinting
-            state = "SPRINTING";
-            color = "#f39c12"; // Orange
-        } else if (totalWork > 0) {
-            // Working normally
-            state = "WORKING";
-            color = "#f1c40f"; // Yellow
-        } else {
-            // Idle
-            state = "IDLE";
-            color = "#2ecc71"; // Green
+    /**
+     * Redraws everything for this runner.
+     */
+    public void update(EpochSnapshot snapshot) {
+        update(snapshot, DataCenter.CHANGE_STATE | DataCenter.CHANGE_TEMP
+                | DataCenter.CHANGE_HYDROGEL | DataCenter.CHANGE_WORK);
+    }
+
+    /**
+     * Redraws only the parts named by the DataCenter.CHANGE_* flags.
+     */
+    public void update(EpochSnapshot snapshot, int changes) {
+        int id = runner.getId();
+
+        if ((changes & DataCenter.CHANGE_WORK) != 0) {
+            workLabel.setText("W: " + snapshot.getTotalWork(id));
         }
-        
-        // Update background color
-        setStyle(String.format(
-            "-fx-border-color: #7f8c8d; -fx-border-width: 1; " +
-            "-fx-background-color: %s; " +
-            "-fx-background-radius: 3; -fx-border-radius: 3;",
-            color
-        ));
-        
-        // Update status indicator
-        statusIndicator.setStyle(String.format(
-            "-fx-background-color: %s; " +
-            "-fx-background-radius: 15; -fx-border-radius: 15; " +
-            "-fx-border-color: white; -fx-border-width: 2;",
-            darkenColor(color)
-        ));
-        
-        // Update temperature bar
-        tempBar.setProgress(chipTemp);
-        if (chipTemp >= 1.0) {
-            tempBar.setStyle("-fx-accent: #e74c3c;"); // Red - at limit (throttling)
-        } else if (chipTemp >= 0.7) {
-            tempBar.setStyle("-fx-accent: #f39c12;"); // Orange - hot
-        } else if (chipTemp >= 0.4) {
-            tempBar.setStyle("-fx-accent: #f1c40f;"); // Yellow - warm
-        } else {
-            tempBar.setStyle("-fx-accent: #3498db;"); // Blue - cool
+
+        if ((changes & DataCenter.CHANGE_STATE) != 0) {
+            int state = stateOf(snapshot, id);
+            setStyle(BACKGROUND_STYLES[state]);
+            statusIndicator.setStyle(INDICATOR_STYLES[state]);
         }
-        
-        // Update hydrogel bar
-        hydrogelBar.setProgress(hydrogelState);
-        if (hydrogelState <= 0.2) {
-            hydrogelBar.setStyle("-fx-accent: #e74c3c;"); // Red - depleted
-        } else if (hydrogelState <= 0.5) {
-            hydrogelBar.setStyle("-fx-accent: #f39c12;"); // Orange - low
-        } else {
-            hydrogelBar.setStyle("-fx-accent: #1abc9c;"); // Teal - good
+
+        if ((changes & DataCenter.CHANGE_TEMP) != 0) {
+            double chipTemp = snapshot.getChipTemp(id);
+            tempBar.setProgress(chipTemp);
+            if (chipTemp >= 1.0) {
+                tempBar.setStyle(TEMP_LIMIT);
+            } else if (chipTemp >= 0.7) {
+                tempBar.setStyle(TEMP_HOT);
+            } else if (chipTemp >= 0.4) {
+                tempBar.setStyle(TEMP_WARM);
+            } else {
+                tempBar.setStyle(TEMP_COOL);
+            }
         }
-        
-        // Update tooltip
-        tooltip.setText(String.format(
+
+        if ((changes & DataCenter.CHANGE_HYDROGEL) != 0) {
+            double hydrogelState = snapshot.getHydrogelState(id);
+            hydrogelBar.setProgress(hydrogelState);
+            if (hydrogelState <= 0.2) {
+                hydrogelBar.setStyle(GEL_DEPLETED);
+            } else if (hydrogelState <= 0.5) {
+                hydrogelBar.setStyle(GEL_LOW);
+            } else {
+                hydrogelBar.setStyle(GEL_GOOD);
+            }
+        }
+    }
+
+    public int getRunnerId() {
+        return runner.getId();
+    }
+
+    // Index into the state palette: 0 idle, 1 working, 2 sprinting, 3 recovering
+    private static int stateOf(EpochSnapshot snapshot, int id) {
+        if (!snapshot.canSprint(id)) return 3;
+        if (snapshot.isSprinting(id)) return 2;
+        return snapshot.getTotalWork(id) > 0 ? 1 : 0;
+    }
+
+    private String describe(EpochSnapshot snapshot) {
+        int id = runner.getId();
+        return String.format(
             "Runner %d\n" +
             "Server: %d | Rack: %d\n" +
             "State: %s\n" +
             "Total Work: %d\n" +
+            "Slots: %d / %d busy\n" +
             "Can Sprint: %s\n" +
             "---\n" +
             "Chip Temp: %.2f\n" +
             "Hydrogel: %.2f",
-            runner.getId(),
+            id,
             runner.getServerId(),
             runner.getRackId(),
-            state,
-            totalWork,
-            runner.canSprint() ? "Yes" : "No",
-            chipTemp,
-            hydrogelState
-        ));
+            STATE_NAMES[stateOf(snapshot, id)],
+            snapshot.getTotalWork(id),
+            snapshot.getActiveSlots(id),
+            snapshot.getExecutionSlots(id),
+            snapshot.canSprint(id) ? "Yes" : "No",
+            snapshot.getChipTemp(id),
+            snapshot.getHydrogelState(id)
+        );
     }
     
-    private String darkenColor(String hexColor) {
+    private static String darkenColor(String hexColor) {
         // Simple darkening by reducing each RGB component
         try {
             Color color = Color.web(hexColor);
@@ -181,4 +207,4 @@ public class TaskRunnerPanel extends VBox {
             return hexColor;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package org.sprinting.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Line chart of one or more {@link MetricHistory} series drawn straight onto a Canvas.
+ *
+ * Each redraw downsamples every series to the canvas width with LTTB and strokes it as one
+ * polyline, so there are no per-point nodes and the cost is the same for a hundred epochs or
+ * a million. The point buffers are reused between redraws.
+ */
+public class TimeSeriesChart extends Pane {
+
+    private static final double PAD = 4;
+    private static final double LEGEND_HEIGHT = 14;
+
+    private final Canvas canvas = new Canvas();
+    private final String title;
+    private final MetricHistory history;
+    private final MetricHistory.Series[] series;
+    private final Color[] colors;
+    private final String[] names;
+
+    private double[][] xs = new double[0][];
+    private double[][] ys = new double[0][];
+    private final int[] counts;
+    private double[] px = new double[0];
+    private double[] py = new double[0];
+
+    public TimeSeriesChart(String title, MetricHistory history, MetricHistory.Series[] series,
+                           String[] names, Color[] colors) {
+        this.title = title;
+        this.history = history;
+        this.series = series;
+        this.names = names;
+        this.colors = colors;
+        this.counts = new int[series.length];
+
+        setStyle("-fx-background-color: #2c3e50; -fx-background-radius: 5;");
+        setPrefSize(320, 150);
+        getChildren().add(canvas);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener(obs -> redraw());
+        canvas.heightProperty().addListener(obs -> redraw());
+    }
+
+    /**
+     * Downsamples the current history and redraws. FX thread only.
+     */
+    public void redraw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.web("#2c3e50"));
+        gc.fillRect(0, 0, width, height);
+        if (width < 3 * PAD || height < LEGEND_HEIGHT + 3 * PAD) return;
+
+        // One point per horizontal pixel
+        int target = Math.max(3, (int) (width - 2 * PAD));
+        if (px.length < target) {
+            xs = new double[series.length][target];
+            ys = new double[series.length][target];
+            px = new double[target];
+            py = new double[target];
+        }
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = 0.0, maxY = -Double.MAX_VALUE;
+        for (int s = 0; s < series.length; s++) {
+            int n = history.downsample(series[s], target, xs[s], ys[s]);
+            counts[s] = n;
+            if (n == 0) continue;
+            minX = Math.min(minX, xs[s][0]);
+            maxX = Math.max(maxX, xs[s][n - 1]);
+            for (int i = 0; i < n; i++) {
+                minY = Math.min(minY, ys[s][i]);
+                maxY = Math.max(maxY, ys[s][i]);
+            }
+        }
+
+        // Legend and scale
+        gc.setFont(Font.font("monospace", 10));
+        gc.setFill(Color.WHITE);
+        gc.fillText(title, PAD, PAD + 9);
+        double legendX = PAD + 8 * title.length();
+        for (int s = 0; s < series.length; s++) {
+            gc.setFill(colors[s]);
+            gc.fillText(names[s], legendX, PAD + 9);
+            legendX += 7 * names[s].length() + 10;
+        }
+        if (maxX < minX) return; // nothing recorded yet
+        if (maxY <= minY) maxY = minY + 1.0;
+        gc.setFill(Color.web("#95a5a6"));
+        gc.fillText(formatValue(maxY), PAD, LEGEND_HEIGHT + PAD + 9);
+        gc.fillText(String.format("%.0f .. %.0f", minX, maxX), PAD, height - PAD);
+
+        double plotTop = LEGEND_HEIGHT + PAD;
+        double plotHeight = height - plotTop - PAD;
+        double plotWidth = width - 2 * PAD;
+        double spanX = Math.max(1.0, maxX - minX);
+        gc.setLineWidth(1.0);
+        for (int s = 0; s < series.length; s++) {
+            int n = counts[s];
+            if (n == 0) continue;
+            for (int i = 0; i < n; i++) {
+                px[i] = PAD + (xs[s][i] - minX) / spanX * plotWidth;
+                py[i] = plotTop + (1.0 - (ys[s][i] - minY) / (maxY - minY)) * plotHeight;
+            }
+            gc.setStroke(colors[s]);
+            gc.strokePolyline(px, py, n);
+        }
+    }
+
+    private static String formatValue(double v) {
+        return v >= 10 ? String.format("%.0f", v) : String.format("%.2f", v);
+    }
+}
@@ -0,0 +1,243 @@
+package org.sprinting.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Solves the Bellman mean-field fixed point for many utility distributions / parameter sets
+ * at once. Every lane shares the u-grid, so the weighted pdfs are laid out as one
+ * lane-major matrix and each lane's scalar state lives in parallel arrays.
+ *
+ * Lanes are advanced together in rounds of a few inner iterations, in parallel chunks;
+ * lanes that converge (or run out of iterations) are retired between rounds so the
+ * remaining work stays dense. Each lane follows exactly the same iteration as
+ * {@link SprintingBellmanDemo.BellmanMeanFieldSolver#solve}, so results match the scalar solver.
+ */
+public class BatchBellmanSolver {
+
+    private static final int LANES_PER_CHUNK = 16;
+    private static final int STEPS_PER_ROUND = 32;
+
+    private final int lanes;
+    private final int gridSize;
+    private final double du;
+    private final double[] gridU;
+
+    // Per-lane parameters
+    private final double[] pc, pr, delta;
+    private final int[] n, nMin, nMax;
+
+    // lanes x gridSize matrix of trapezoid-weighted pdf values, w_i * f(u_i)
+    private final double[] weightedPdf;
+
+    public BatchBellmanSolver(SprintingBellmanDemo.Params shared,
+                              List<? extends SprintingBellmanDemo.UtilityDistribution> dists) {
+        this(Collections.nCopies(dists.size(), shared), dists);
+    }
+
+    public BatchBellmanSolver(List<SprintingBellmanDemo.Params> params,
+                              List<? extends SprintingBellmanDemo.UtilityDistribution> dists) {
+        if (params.size() != dists.size()) {
+            throw new IllegalArgumentException("Got " + params.size() + " parameter sets for " + dists.size() + " distributions");
+        }
+        this.lanes = dists.size();
+        SprintingBellmanDemo.Params first = lanes == 0 ? new SprintingBellmanDemo.Params() : params.get(0);
+        this.gridSize = first.gridU;
+        this.du = (first.uMax - first.uMin) / (first.gridU - 1);
+        this.gridU = new double[gridSize];
+        for (int i = 0; i < gridSize; i++) gridU[i] = first.uMin + i * du;
+
+        this.pc = new double[lanes];
+        this.pr = new double[lanes];
+        this.delta = new double[lanes];
+        this.n = new int[lanes];
+        this.nMin = new int[lanes];
+        this.nMax = new int[lanes];
+        this.weightedPdf = new double[lanes * gridSize];
+
+        for (int l = 0; l < lanes; l++) {
+            SprintingBellmanDemo.Params p = params.get(l);
+            if (p.gridU != first.gridU || p.uMin != first.uMin || p.uMax != first.uMax) {
+                throw new IllegalArgumentException("Lane " + l + " does not share the u-grid of lane 0");
+            }
+            pc[l] = p.pc;
+            pr[l] = p.pr;
+            delta[l] = p.delta;
+            n[l] = p.N;
+            nMin[l] = p.Nmin;
+            nMax[l] = p.Nmax;
+
+            SprintingBellmanDemo.UtilityDistribution dist = dists.get(l);
+            int row = l * gridSize;
+            for (int i = 0; i < gridSize; i++) {
+                double w = (i == 0 || i == gridSize - 1) ? 0.5 : 1.0; // trapezoid endpoints
+                weightedPdf[row + i] = w * dist.pdf(gridU[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return lanes;
+    }
+
+    public SprintingBellmanDemo.Result[] solve(double ptripInit, int maxOuter, int maxInner,
+                                               double tolOuter, double tolInner) {
+        SprintingBellmanDemo.Result[] results = new SprintingBellmanDemo.Result[lanes];
+        double[] ptrip = new double[lanes];
+        double[] vaOuter = new double[lanes];
+        double[] vaInner = new double[lanes];
+        int[] outer = new int[lanes];
+        int[] inner = new int[lanes];
+
+        int[] active = new int[lanes];
+        for (int l = 0; l < lanes; l++) {
+            ptrip[l] = clamp(ptripInit, 0.0, 1.0);
+            active[l] = l;
+        }
+        int activeCount = lanes;
+        if (maxOuter <= 0) {
+            for (int l = 0; l < lanes; l++) results[l] = finish(l, false, maxOuter, ptrip[l], vaOuter[l]);
+            return results;
+        }
+
+        while (activeCount > 0) {
+            final int[] current = active;
+            final int count = activeCount;
+            int chunks = (count + LANES_PER_CHUNK - 1) / LANES_PER_CHUNK;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int end = Math.min(count, (chunk + 1) * LANES_PER_CHUNK);
+                for (int k = chunk * LANES_PER_CHUNK; k < end; k++) {
+                    int l = current[k];
+                    for (int step = 0; step < STEPS_PER_ROUND && results[l] == null; step++) {
+                        step(l, results, ptrip, vaOuter, vaInner, outer, inner,
+                                maxOuter, maxInner, tolOuter, tolInner);
+                    }
+                }
+            });
+
+            // Retire finished lanes
+            int kept = 0;
+            for (int k = 0; k < count; k++) {
+                if (results[current[k]] == null) active[kept++] = current[k];
+            }
+            activeCount = kept;
+        }
+        return results;
+    }
+
+    /**
+     * One inner Bellman iteration for lane l, plus the outer mean-field update when the
+     * inner fixed point has converged.
+     */
+    private void step(int l, SprintingBellmanDemo.Result[] results, double[] ptrip, double[] vaOuter,
+                      double[] vaInner, int[] outer, int[] inner,
+                      int maxOuter, int maxInner, double tolOuter, double tolInner) {
+        double d = delta[l];
+        double p = ptrip[l];
+        double VA = vaInner[l];
+
+        // Closed-form V(R) and V(C)
+        double denomR = 1.0 - d * pr[l];
+        double V_R = (d * (1.0 - pr[l]) * VA) / denomR;
+        double denomC = 1.0 - d * (1.0 - p) * pc[l];
+        double V_C = (d * ((1.0 - p) * (1.0 - pc[l]) * VA + p * V_R)) / denomC;
+
+        // V(A) = ∫ max{VS, V¬S} f(u) du; VS - u and V¬S are constant over the grid
+        double sprintValue = d * ((1.0 - p) * V_C + p * V_R);
+        double waitValue = d * ((1.0 - p) * VA + p * V_R);
+        int row = l * gridSize;
+        double sum = 0.0;
+        for (int i = 0; i < gridSize; i++) {
+            sum += weightedPdf[row + i] * Math.max(gridU[i] + sprintValue, waitValue);
+        }
+        double VAnew = sum * du;
+
+        if (!(Math.abs(VAnew - VA) < tolInner)) {
+            vaInner[l] = VAnew;
+            if (++inner[l] >= maxInner) {
+                // Inner loop exhausted: restart the next outer pass from the last accepted V(A)
+                nextOuter(l, results, ptrip, vaOuter, vaInner, outer, inner, maxOuter);
+            }
+            return;
+        }
+
+        double V_A = VAnew;
+        vaOuter[l] = V_A;
+        double V_R2 = (d * (1.0 - pr[l]) * V_A) / denomR;
+        double V_C2 = (d * ((1.0 - p) * (1.0 - pc[l]) * V_A + p * V_R2)) / denomC;
+        double uT = d * (V_A - V_C2) * (1.0 - p);
+
+        double pSprint = clamp(sprintMass(row, uT), 0.0, 1.0);
+        double pActive = clamp((1.0 - pc[l]) / (1.0 + pSprint - pc[l]), 0.0, 1.0);
+        double nS = pSprint * pActive * n[l];
+        double ptripNew = tripCurve(nS, nMin[l], nMax[l]);
+
+        if (Math.abs(ptripNew - p) < tolOuter) {
+            SprintingBellmanDemo.Result r = new SprintingBellmanDemo.Result();
+            r.converged = true;
+            r.outerIters = outer[l] + 1;
+            r.ptrip = ptripNew;
+            r.thresholdUT = uT;
+            r.pSprint = pSprint;
+            r.pActive = pActive;
+            r.expectedNSprinters = nS;
+            r.V_A = V_A;
+            r.V_C = V_C2;
+            r.V_R = V_R2;
+            results[l] = r;
+            return;
+        }
+
+        ptrip[l] = ptripNew;
+        nextOuter(l, results, ptrip, vaOuter, vaInner, outer, inner, maxOuter);
+    }
+
+    private void nextOuter(int l, SprintingBellmanDemo.Result[] results, double[] ptrip, double[] vaOuter,
+                           double[] vaInner, int[] outer, int[] inner, int maxOuter) {
+        inner[l] = 0;
+        vaInner[l] = vaOuter[l];
+        if (++outer[l] >= maxOuter) {
+            results[l] = finish(l, false, maxOuter, ptrip[l], vaOuter[l]);
+        }
+    }
+
+    // Mirrors the non-converged tail of the scalar solver
+    private SprintingBellmanDemo.Result finish(int l, boolean converged, int outerIters, double ptrip, double V_A) {
+        double d = delta[l];
+        SprintingBellmanDemo.Result r = new SprintingBellmanDemo.Result();
+        r.converged = converged;
+        r.outerIters = outerIters;
+        r.ptrip = ptrip;
+        double denomR = 1.0 - d * pr[l];
+        r.V_R = (d * (1.0 - pr[l]) * V_A) / denomR;
+        double denomC = 1.0 - d * (1.0 - ptrip) * pc[l];
+        r.V_C = (d * ((1.0 - ptrip) * (1.0 - pc[l]) * V_A + ptrip * r.V_R)) / denomC;
+        r.V_A = V_A;
+        r.thresholdUT = d * (r.V_A - r.V_C) * (1.0 - ptrip);
+        r.pSprint = sprintMass(l * gridSize, r.thresholdUT);
+        r.pActive = (1.0 - pc[l]) / (1.0 + r.pSprint - pc[l]);
+        r.expectedNSprinters = r.pSprint * r.pActive * n[l];
+        return r;
+    }
+
+    // ∫_{u >= uT} f(u) du over the lane's row
+    private double sprintMass(int row, double uT) {
+        double sum = 0.0;
+        for (int i = 0; i < gridSize; i++) {
+            if (gridU[i] >= uT) sum += weightedPdf[row + i];
+        }
+        return sum * du;
+    }
+
+    private static double tripCurve(double nS, int Nmin, int Nmax) {
+        if (nS < Nmin) return 0.0;
+        if (nS > Nmax) return 1.0;
+        if (Nmax == Nmin) return 1.0;
+        return (nS - Nmin) / (double)(Nmax - Nmin);
+    }
+
+    private static double clamp(double x, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, x));
+    }
+}
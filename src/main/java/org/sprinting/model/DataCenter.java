@@ -1,12 +1,16 @@
 package org.sprinting.model;
 
-import java.util.LinkedList;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.IntStream;
 
+import org.sprinting.coordinator.BatchOrder;
 import org.sprinting.coordinator.GreedyScheduler;
+import org.sprinting.coordinator.Scheduler;
 import org.sprinting.coordinator.SprintCoordinator;
+import org.sprinting.coordinator.ThresholdController;
+import org.sprinting.coordinator.WorkStealer;
 
 /**
  * Represents the data center configuration with # of multiprocessors in a server, 
@@ -16,16 +20,85 @@ import org.sprinting.coordinator.SprintCoordinator;
 
 public class DataCenter {
     List<TaskRunner> runners;
-    GreedyScheduler scheduler;
+    Scheduler scheduler;
     List<Task> tasks;
     private double[] chipTemps;
     private double[] hydrogelStates;
     final int MAX_RACK_SPRINTS = 6;
-    SprintCoordinator coordinator; 
+    ThresholdController coordinator; 
+    private final int procsPerServer;
+    private final int serversPerRack;
+    private final int numRacks;
+
+    // Token-based sprint admission: when enabled runners must win a rack token before sprinting
+    private boolean sprintAdmission = false;
+    private final RackPowerBudget powerBudget;
+    private long deniedSprints = 0;
+    private long powerTrips = 0;
+    private final int[] rackSprinters; // sprinters per rack in the last epoch
+    private final int[] rackPowerMilli; // sprint power per rack in the last epoch, thousandths of a full sprint
+    private SprintLevel[] sprintLevels = {SprintLevel.FULL};
+
+    private ThermalGuard thermalGuard;
+    private long epoch = 0;
+    private long thermalTrips = 0;
+    private long tripsAvoided = 0;          // sprint runs the guard ended because they would trip
+    private long recoveryEpochsAvoided = 0; // COOLING_EPOCHS per trip avoided
+    private boolean[] guardVetoed;          // the guard vetoed the runner's sprint request last epoch
+
+    // End-of-epoch work stealing between runner queues; null when disabled
+    private WorkStealer workStealer;
+    private long stolenTasks = 0;
+
+    private QueueDiscipline queueDiscipline = QueueDiscipline.FIFO;
+    private BatchOrder batchOrder = BatchOrder.ARRIVAL;
+
+    // Per-runner change flags for the last epoch, so views can redraw only what changed
+    public static final int CHANGE_STATE = 1;     // idle / working / sprinting / recovering transition
+    public static final int CHANGE_TEMP = 2;      // chip temperature moved to another bucket
+    public static final int CHANGE_HYDROGEL = 4;  // hydrogel moved to another bucket
+    public static final int CHANGE_WORK = 8;      // remaining work changed
+    private static final int BUCKETS = 20;        // temperature and hydrogel are tracked in 5% steps
+    private byte[] runnerChanges;
+    private int[] changedRunners;
+    private int changedCount;
+    private byte[] lastDisplayState;
+    private byte[] lastTempBucket;
+    private byte[] lastHydrogelBucket;
+    private int[] lastWork;
+
+    // Server and rack aggregates of the displayed state, kept up to date from the per-runner
+    // diffs above; temperatures are summed in 1/TEMP_SCALE fixed point so the sums never drift
+    private static final int TEMP_SCALE = 1 << 16;
+    private int[] lastTempFixed;
+    private int[] serverSprinting;
+    private int[] serverRecovering;
+    private long[] serverTempFixed;
+    private int[] rackSprinting;
+    private int[] rackRecovering;
+    private long[] rackTempFixed;
+
+    // Jobs whose stages are still being released; stages enter the task list once ready
+    private final List<Job> activeJobs = new ArrayList<>();
+    private double criticalPathBoost = 0.5;
+    private long jobsCompleted = 0;
+    private long totalJobMakespan = 0;
+
+    // Always-on phase timings of runEpoch()
+    private final EpochProfiler profiler = new EpochProfiler();
 
     public DataCenter(int procsPerServer, int serversPerRack, int numRunners, List<Task> init_tasks) {
-        this.runners = new LinkedList<>();
+        this(procsPerServer, serversPerRack, numRunners, init_tasks,
+            new SprintCoordinator(2, 30)); // thresholds are recomputed on drift, at least every 30 epochs
+    }
+
+    public DataCenter(int procsPerServer, int serversPerRack, int numRunners, List<Task> init_tasks,
+                      ThresholdController coordinator) {
+        this.runners = new ArrayList<>(numRunners);
         this.tasks = init_tasks;
+        this.procsPerServer = procsPerServer;
+        this.serversPerRack = serversPerRack;
+        this.numRacks = (numRunners + procsPerServer * serversPerRack - 1) / (procsPerServer * serversPerRack);
         this.chipTemps = new double[numRunners];
         for (int i = 0; i < numRunners; i++) {
             int serverId = i / procsPerServer;
@@ -34,19 +107,62 @@ public class DataCenter {
         }
         scheduler = new GreedyScheduler(runners);
         hydrogelStates = new double[numRunners];
-        this.coordinator = new SprintCoordinator(10); // thresholds are recomputed every 30 epochs
+        this.coordinator = coordinator;
+        this.powerBudget = new RackPowerBudget(numRacks);
+        this.rackSprinters = new int[numRacks];
+        this.rackPowerMilli = new int[numRacks];
+        this.runnerChanges = new byte[numRunners];
+        this.guardVetoed = new boolean[numRunners];
+        this.changedRunners = new int[numRunners];
+        this.lastDisplayState = new byte[numRunners];
+        this.lastTempBucket = new byte[numRunners];
+        this.lastHydrogelBucket = new byte[numRunners];
+        this.lastWork = new int[numRunners];
+        int numServers = (numRunners + procsPerServer - 1) / procsPerServer;
+        this.lastTempFixed = new int[numRunners];
+        this.serverSprinting = new int[numServers];
+        this.serverRecovering = new int[numServers];
+        this.serverTempFixed = new long[numServers];
+        this.rackSprinting = new int[numRacks];
+        this.rackRecovering = new int[numRacks];
+        this.rackTempFixed = new long[numRacks];
+        // Nothing has been drawn yet, so every runner starts out changed
+        for (int i = 0; i < numRunners; i++) {
+            runnerChanges[i] = CHANGE_STATE | CHANGE_TEMP | CHANGE_HYDROGEL | CHANGE_WORK;
+            changedRunners[i] = i;
+        }
+        this.changedCount = numRunners;
     }
 
     public void runEpoch() {
+        EpochEvent event = new EpochEvent();
+        event.begin();
+        profiler.start();
         coordinator.onEpoch(runners);
-        int initialTaskCount = tasks.size();
-        for (int i = 0; i < initialTaskCount; i++) {
-            scheduler.assignTask(tasks.remove(0));
+        profiler.mark(EpochProfiler.Phase.COORDINATOR);
+        if (!tasks.isEmpty()) {
+            scheduler.assignTasks(batchOrder.sort(tasks));
+            tasks.clear();
         }
+        profiler.mark(EpochProfiler.Phase.ASSIGNMENT);
 
-        for (TaskRunner runner : runners) {
-            runner.evaluateSprint();
+        if (thermalGuard != null) {
+            for (int i = 0; i < runners.size(); i++) {
+                TaskRunner runner = runners.get(i);
+                double activeFraction = runner.getActiveSlots() / (double) runner.getExecutionSlots();
+                runner.setSprintLevelCap(
+                        thermalGuard.maxSafeLevel(chipTemps[i], hydrogelStates[i], sprintLevels, activeFraction));
+            }
+        }
+
+        if (sprintAdmission) {
+            admitSprints();
+        } else {
+            for (TaskRunner runner : runners) {
+                runner.evaluateSprint();
+            }
         }
+        profiler.mark(EpochProfiler.Phase.SPRINT_EVALUATION);
 
         // Map<Integer, Integer> sprintersPerServer = new HashMap<>();
         // for (TaskRunner runner : runners) {
@@ -80,53 +196,232 @@ public class DataCenter {
         //need to update chiptemps
         for (int i = 0; i < runners.size(); i++) {
             double tempChipTemp = chipTemps[i];
-            chipTemps[i] = computeNewTemperature(chipTemps[i], 
-                runners.get(i).isSprinting(), hydrogelStates[i]);
+            TaskRunner runner = runners.get(i);
+            SprintLevel level = runner.getSprintLevel();
+            double activeFraction = runner.getActiveSlots() / (double) runner.getExecutionSlots();
+            chipTemps[i] = computeNewTemperature(chipTemps[i], level, hydrogelStates[i], activeFraction);
             if (chipTemps[i] == 1.0) {
-                runners.get(i).updateEpochsInRecoveryForThermalFailure();
+                if (runner.isSprinting()) thermalTrips++;
+                runner.updateEpochsInRecoveryForThermalFailure();
             }
-            hydrogelStates[i] = computeNewHydrogelState(tempChipTemp, 
-                runners.get(i).isSprinting(), hydrogelStates[i]);
+            // One trip avoided per veto run, however many epochs the runner stays vetoed;
+            // a downgrade that still sprints avoids nothing
+            boolean vetoed = runner.isSprintCapped() && runner.getRequestedLevel() < 0;
+            if (vetoed && !guardVetoed[i]) {
+                tripsAvoided++;
+                recoveryEpochsAvoided += runner.getCoolingEpochs();
+            }
+            guardVetoed[i] = vetoed;
+            hydrogelStates[i] = computeNewHydrogelState(tempChipTemp, level, hydrogelStates[i], activeFraction);
         }
+        profiler.mark(EpochProfiler.Phase.THERMAL_UPDATE);
         
-        Map<Integer, Integer> sprintersPerRack = new HashMap<>();
+        Arrays.fill(rackSprinters, 0);
+        Arrays.fill(rackPowerMilli, 0);
         for (TaskRunner runner : runners) {
-            if (runner.isSprinting()) {
-                sprintersPerRack.merge(runner.getRackId(), 1, Integer::sum);
+            SprintLevel level = runner.getSprintLevel();
+            if (level != null) {
+                rackSprinters[runner.getRackId()]++;
+                rackPowerMilli[runner.getRackId()] += level.getPowerMilli();
             }
         }
 
-        for (Map.Entry<Integer, Integer> entry : sprintersPerRack.entrySet()) {
-            int rackId = entry.getKey();
-            int sprinters = entry.getValue();
-        
-            if (sprinters > MAX_RACK_SPRINTS) {
-                for (TaskRunner runner : runners) {
-                    if (runner.getRackId() == rackId) {
-                        runner.updateEpochsInRecoveryForPowerFailure();
-                    }
+        // The rack limit is MAX_RACK_SPRINTS full sprints' worth of power
+        int runnersPerRack = procsPerServer * serversPerRack;
+        for (int rackId = 0; rackId < numRacks; rackId++) {
+            if (rackPowerMilli[rackId] > MAX_RACK_SPRINTS * 1000) {
+                coordinator.recordPowerTrip(rackId);
+                powerTrips++;
+                int end = Math.min(runners.size(), (rackId + 1) * runnersPerRack);
+                for (int i = rackId * runnersPerRack; i < end; i++) {
+                    runners.get(i).updateEpochsInRecoveryForPowerFailure();
                 }
                 // System.out.println("Rack " + rackId + " exceeded power limit! All runners recovering.");
             }
         }
+        profiler.mark(EpochProfiler.Phase.RACK_POWER_CHECK);
         // if no failures then proceed
         for (TaskRunner runner : runners) {
             runner.executeEpoch();
             runner.updateState();
         }
+        profiler.mark(EpochProfiler.Phase.EXECUTE);
+        if (workStealer != null) {
+            stolenTasks += workStealer.steal();
+        }
+        epoch++;
+        updateJobs();
+        trackChanges();
+        scheduler.onEpochEnd(); // after trackChanges, so schedulers can re-index just the changed runners
+        profiler.mark(EpochProfiler.Phase.BOOKKEEPING);
+        profiler.finish();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.epoch = epoch;
+            event.runners = runners.size();
+            event.coordinator = profiler.getLastNanos(EpochProfiler.Phase.COORDINATOR);
+            event.assignment = profiler.getLastNanos(EpochProfiler.Phase.ASSIGNMENT);
+            event.sprintEvaluation = profiler.getLastNanos(EpochProfiler.Phase.SPRINT_EVALUATION);
+            event.thermalUpdate = profiler.getLastNanos(EpochProfiler.Phase.THERMAL_UPDATE);
+            event.rackPowerCheck = profiler.getLastNanos(EpochProfiler.Phase.RACK_POWER_CHECK);
+            event.execute = profiler.getLastNanos(EpochProfiler.Phase.EXECUTE);
+            event.bookkeeping = profiler.getLastNanos(EpochProfiler.Phase.BOOKKEEPING);
+            event.powerTrips = powerTrips;
+            event.thermalTrips = thermalTrips;
+            event.commit();
+        }
+    }
+
+    /**
+     * Diffs each runner's displayed state against the previous epoch, records which parts
+     * changed, and applies the differences to the server and rack aggregates. O(n) with no
+     * allocation.
+     */
+    private void trackChanges() {
+        changedCount = 0;
+        for (int i = 0; i < runners.size(); i++) {
+            TaskRunner runner = runners.get(i);
+            byte state = displayState(runner);
+            byte temp = (byte) (chipTemps[i] * BUCKETS);
+            byte hydrogel = (byte) (hydrogelStates[i] * BUCKETS);
+            int work = runner.getTotalWork();
+
+            int server = i / procsPerServer;
+            int rack = server / serversPerRack;
+            int tempFixed = (int) (chipTemps[i] * TEMP_SCALE);
+            serverTempFixed[server] += tempFixed - lastTempFixed[i];
+            rackTempFixed[rack] += tempFixed - lastTempFixed[i];
+            lastTempFixed[i] = tempFixed;
+            if (state != lastDisplayState[i]) {
+                int sprinting = (state == 2 ? 1 : 0) - (lastDisplayState[i] == 2 ? 1 : 0);
+                int recovering = (state == 3 ? 1 : 0) - (lastDisplayState[i] == 3 ? 1 : 0);
+                serverSprinting[server] += sprinting;
+                serverRecovering[server] += recovering;
+                rackSprinting[rack] += sprinting;
+                rackRecovering[rack] += recovering;
+            }
+
+            int flags = 0;
+            if (state != lastDisplayState[i]) flags |= CHANGE_STATE;
+            if (temp != lastTempBucket[i]) flags |= CHANGE_TEMP;
+            if (hydrogel != lastHydrogelBucket[i]) flags |= CHANGE_HYDROGEL;
+            if (work != lastWork[i]) flags |= CHANGE_WORK;
+
+            runnerChanges[i] = (byte) flags;
+            if (flags != 0) {
+                changedRunners[changedCount++] = i;
+                lastDisplayState[i] = state;
+                lastTempBucket[i] = temp;
+                lastHydrogelBucket[i] = hydrogel;
+                lastWork[i] = work;
+            }
+        }
+    }
+
+    // 0 idle, 1 working, 2 sprinting, 3 recovering
+    private static byte displayState(TaskRunner runner) {
+        if (!runner.canSprint()) return 3;
+        if (runner.isSprinting()) return 2;
+        return runner.getTotalWork() > 0 ? (byte) 1 : (byte) 0;
+    }
+
+    /**
+     * Releases the successors of job stages that completed this epoch into the task list
+     * and retires finished jobs.
+     */
+    private void updateJobs() {
+        int kept = 0;
+        for (int j = 0; j < activeJobs.size(); j++) {
+            Job job = activeJobs.get(j);
+            job.update(epoch, tasks, criticalPathBoost);
+            if (job.isComplete()) {
+                jobsCompleted++;
+                totalJobMakespan += job.getMakespan();
+            } else {
+                activeJobs.set(kept++, job);
+            }
+        }
+        activeJobs.subList(kept, activeJobs.size()).clear();
+    }
+
+    /**
+     * Grants sprints rack by rack, highest-utility requesters first, until the rack's power
+     * budget of MAX_RACK_SPRINTS full sprints is spent. Tokens are thousandths of a full
+     * sprint; a requester whose level no longer fits is offered the next lower level before
+     * being denied. Racks are admitted in parallel.
+     */
+    private void admitSprints() {
+        powerBudget.reset(MAX_RACK_SPRINTS * 1000);
+
+        // Bucket requesters by rack; keys sort by descending utility, then ascending id
+        int[] rackStart = new int[numRacks + 1];
+        int[] requesters = new int[runners.size()];
+        int requests = 0;
+        for (TaskRunner runner : runners) {
+            if (runner.requestSprint()) {
+                requesters[requests++] = runner.getId();
+                rackStart[runner.getRackId() + 1]++;
+            }
+        }
+        if (requests == 0) return;
+        for (int rack = 0; rack < numRacks; rack++) {
+            rackStart[rack + 1] += rackStart[rack];
+        }
+        int[] fill = Arrays.copyOf(rackStart, numRacks);
+        long[] keys = new long[requests];
+        for (int k = 0; k < requests; k++) {
+            TaskRunner runner = runners.get(requesters[k]);
+            long rank = (long) ((1.0 - runner.getCurrentUtility()) * Integer.MAX_VALUE);
+            keys[fill[runner.getRackId()]++] = (rank << 32) | runner.getId();
+        }
+
+        long denied = IntStream.range(0, numRacks).parallel().mapToLong(rack -> {
+            Arrays.sort(keys, rackStart[rack], rackStart[rack + 1]);
+            long rackDenied = 0;
+            for (int k = rackStart[rack]; k < rackStart[rack + 1]; k++) {
+                TaskRunner runner = runners.get((int) keys[k]);
+                int level = runner.getRequestedLevel();
+                while (level >= 0 && !powerBudget.tryAcquire(rack, sprintLevels[level].getPowerMilli())) {
+                    level--;
+                }
+                if (level >= 0) {
+                    runner.grantSprint(level);
+                } else {
+                    rackDenied++;
+                }
+            }
+            return rackDenied;
+        }).sum();
+        deniedSprints += denied;
     }
 
     public static double computeNewTemperature(double currentTemp, boolean isSprinting, double hydrogelState) {
+        return computeNewTemperature(currentTemp, isSprinting ? SprintLevel.FULL : null, hydrogelState, 1.0);
+    }
+
+    /**
+     * Same as the boolean form, with the heat added by the given level (null means not
+     * sprinting) scaled by the fraction of the runner's execution slots that are busy.
+     */
+    public static double computeNewTemperature(double currentTemp, SprintLevel level, double hydrogelState,
+                                               double activeFraction) {
         if (hydrogelState > 0) {
             return currentTemp;
         }
-        return isSprinting ? Math.min(1.0, currentTemp + 0.25) : Math.max(0.0, currentTemp - 0.05);
-        
+        return level != null
+                ? Math.min(1.0, currentTemp + level.getHeatRate() * activeFraction)
+                : Math.max(0.0, currentTemp - 0.05);
     }
 
     public static double computeNewHydrogelState(double currentTemp, boolean isSprinting, double hydrogelState) {
-        if (isSprinting) {
-            return Math.max(0.0, hydrogelState - 0.1);
+        return computeNewHydrogelState(currentTemp, isSprinting ? SprintLevel.FULL : null, hydrogelState, 1.0);
+    }
+
+    public static double computeNewHydrogelState(double currentTemp, SprintLevel level, double hydrogelState,
+                                                 double activeFraction) {
+        if (level != null) {
+            return Math.max(0.0, hydrogelState - level.getHydrogelDrain() * activeFraction);
         } else {
             return Math.min(1.0, hydrogelState + 0.05);
         }
@@ -149,6 +444,271 @@ public class DataCenter {
         }
     }
 
+    /**
+     * Submits a job; its stages are handed to the scheduler as their predecessors complete.
+     */
+    public void submitJob(Job job) {
+        tasks.addAll(job.submit(epoch, criticalPathBoost));
+        if (!job.isComplete()) {
+            activeJobs.add(job);
+        }
+    }
+
+    /**
+     * Utility added to job stages on their job's critical path; 0 disables the boost.
+     */
+    public void setCriticalPathBoost(double boost) {
+        this.criticalPathBoost = boost;
+    }
+
+    public double getCriticalPathBoost() {
+        return criticalPathBoost;
+    }
+
+    public int getActiveJobs() {
+        return activeJobs.size();
+    }
+
+    public long getJobsCompleted() {
+        return jobsCompleted;
+    }
+
+    public double getMeanJobMakespan() {
+        return jobsCompleted == 0 ? 0.0 : totalJobMakespan / (double) jobsCompleted;
+    }
+
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Runners belonging to a rack, as a view over the contiguous id range of that rack.
+     */
+    public List<TaskRunner> getRackRunners(int rackId) {
+        int runnersPerRack = procsPerServer * serversPerRack;
+        int start = Math.min(runners.size(), rackId * runnersPerRack);
+        return runners.subList(start, Math.min(runners.size(), start + runnersPerRack));
+    }
+
+    public int getRackSprinters(int rackId) {
+        return rackSprinters[rackId];
+    }
+
+    public int getNumServers() {
+        return serverSprinting.length;
+    }
+
+    /**
+     * Runners of the server shown as sprinting after the last epoch.
+     */
+    public int getServerSprinting(int serverId) {
+        return serverSprinting[serverId];
+    }
+
+    public int getServerRecovering(int serverId) {
+        return serverRecovering[serverId];
+    }
+
+    public double getServerMeanTemp(int serverId) {
+        int start = serverId * procsPerServer;
+        int size = Math.min(runners.size(), start + procsPerServer) - start;
+        return serverTempFixed[serverId] / (double) TEMP_SCALE / size;
+    }
+
+    /**
+     * Runners of the rack shown as sprinting after the last epoch.
+     */
+    public int getRackSprinting(int rackId) {
+        return rackSprinting[rackId];
+    }
+
+    public int getRackRecovering(int rackId) {
+        return rackRecovering[rackId];
+    }
+
+    public double getRackMeanTemp(int rackId) {
+        return rackTempFixed[rackId] / (double) TEMP_SCALE / getRackRunners(rackId).size();
+    }
+
+    /**
+     * Sprint power drawn by the rack in the last epoch, in units of a full sprint.
+     */
+    public double getRackPower(int rackId) {
+        return rackPowerMilli[rackId] / 1000.0;
+    }
+
+    /**
+     * Sets how many tasks every runner executes concurrently. A sprint boosts all busy slots.
+     */
+    public void setExecutionSlots(int slots) {
+        for (TaskRunner runner : runners) {
+            runner.setExecutionSlots(slots);
+        }
+    }
+
+    /**
+     * Sets the boost levels every runner chooses from, in ascending intensity.
+     */
+    public void setSprintLevels(SprintLevel... levels) {
+        for (TaskRunner runner : runners) {
+            runner.setSprintLevels(levels);
+        }
+        this.sprintLevels = levels.clone();
+    }
+
+    public SprintLevel[] getSprintLevels() {
+        return sprintLevels.clone();
+    }
+
+    public int getMaxRackSprints() {
+        return MAX_RACK_SPRINTS;
+    }
+
+    public int getProcsPerServer() {
+        return procsPerServer;
+    }
+
+    public int getServersPerRack() {
+        return serversPerRack;
+    }
+
+    public int getNumRacks() {
+        return numRacks;
+    }
+
+    /**
+     * Sets the order in which each epoch's arrivals are placed: ARRIVAL keeps submission order,
+     * LPT places the longest tasks first for better balance, UTILITY the most valuable first.
+     */
+    public void setBatchOrder(BatchOrder batchOrder) {
+        this.batchOrder = batchOrder;
+    }
+
+    public BatchOrder getBatchOrder() {
+        return batchOrder;
+    }
+
+    public void setWorkStealing(boolean enabled) {
+        this.workStealer = enabled ? new WorkStealer(this) : null;
+    }
+
+    public boolean isWorkStealing() {
+        return workStealer != null;
+    }
+
+    public long getStolenTasks() {
+        return stolenTasks;
+    }
+
+    /**
+     * Applies a queue discipline to every runner; tasks already queued are reordered in place.
+     */
+    public void setQueueDiscipline(QueueDiscipline discipline) {
+        this.queueDiscipline = discipline;
+        for (TaskRunner runner : runners) {
+            runner.setQueueDiscipline(discipline);
+        }
+    }
+
+    public QueueDiscipline getQueueDiscipline() {
+        return queueDiscipline;
+    }
+
+    public long getPreemptions() {
+        long total = 0;
+        for (TaskRunner runner : runners) total += runner.getPreemptions();
+        return total;
+    }
+
+    /**
+     * Turns on the look-ahead thermal guard, which lowers or vetoes sprints forecast to trip.
+     */
+    public void setThermalGuard(boolean enabled) {
+        this.thermalGuard = enabled ? new ThermalGuard() : null;
+        if (!enabled) {
+            for (TaskRunner runner : runners) {
+                runner.setSprintLevelCap(Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    public boolean isThermalGuard() {
+        return thermalGuard != null;
+    }
+
+    public long getTripsAvoided() {
+        return tripsAvoided;
+    }
+
+    /**
+     * Phase timings of the recent epochs; read it on the thread that runs them.
+     */
+    public EpochProfiler getProfiler() {
+        return profiler;
+    }
+
+    public long getRecoveryEpochsAvoided() {
+        return recoveryEpochsAvoided;
+    }
+
+    public long getThermalTrips() {
+        return thermalTrips;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Epoch units of work executed across all runners so far.
+     */
+    public long getWorkCompleted() {
+        long total = 0;
+        for (TaskRunner runner : runners) total += runner.getWorkCompleted();
+        return total;
+    }
+
+    public void setSprintAdmission(boolean enabled) {
+        this.sprintAdmission = enabled;
+    }
+
+    public boolean isSprintAdmission() {
+        return sprintAdmission;
+    }
+
+    public long getDeniedSprints() {
+        return deniedSprints;
+    }
+
+    public long getPowerTrips() {
+        return powerTrips;
+    }
+
+    /**
+     * Number of runners whose displayed state changed in the last epoch.
+     */
+    public int getChangedRunnerCount() {
+        return changedCount;
+    }
+
+    /**
+     * Id of the k-th changed runner, for k below {@link #getChangedRunnerCount()}.
+     */
+    public int getChangedRunner(int k) {
+        return changedRunners[k];
+    }
+
+    /**
+     * CHANGE_* flags for the runner from the last epoch; 0 if nothing visible changed.
+     */
+    public int getRunnerChanges(int runnerId) {
+        return runnerChanges[runnerId];
+    }
+
     public List<TaskRunner> getRunners() {
         return runners;
     }
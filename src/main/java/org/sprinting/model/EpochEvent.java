@@ -0,0 +1,61 @@
+package org.sprinting.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one {@link DataCenter#runEpoch()}, carrying the same phase times as
+ * {@link EpochProfiler}. Costs nothing beyond the begin/end timestamps unless a recording
+ * enables it, e.g. {@code -XX:StartFlightRecording:filename=sim.jfr}.
+ */
+@Name("org.sprinting.Epoch")
+@Label("Simulation Epoch")
+@Category("Sprinting")
+@Description("One data center epoch and the time spent in each of its phases")
+@StackTrace(false)
+class EpochEvent extends jdk.jfr.Event {
+
+    @Label("Epoch")
+    long epoch;
+
+    @Label("Runners")
+    int runners;
+
+    @Label("Coordinator")
+    @Timespan(Timespan.NANOSECONDS)
+    long coordinator;
+
+    @Label("Assignment")
+    @Timespan(Timespan.NANOSECONDS)
+    long assignment;
+
+    @Label("Sprint Evaluation")
+    @Timespan(Timespan.NANOSECONDS)
+    long sprintEvaluation;
+
+    @Label("Thermal Update")
+    @Timespan(Timespan.NANOSECONDS)
+    long thermalUpdate;
+
+    @Label("Rack Power Check")
+    @Timespan(Timespan.NANOSECONDS)
+    long rackPowerCheck;
+
+    @Label("Execute")
+    @Timespan(Timespan.NANOSECONDS)
+    long execute;
+
+    @Label("Bookkeeping")
+    @Timespan(Timespan.NANOSECONDS)
+    long bookkeeping;
+
+    @Label("Power Trips")
+    long powerTrips;
+
+    @Label("Thermal Trips")
+    long thermalTrips;
+}
@@ -0,0 +1,185 @@
+package org.sprinting.model;
+
+import java.util.Arrays;
+
+/**
+ * Times the phases of {@link DataCenter#runEpoch()} with System.nanoTime and keeps the last
+ * WINDOW epochs of each phase, from which {@link #summarize()} computes rolling percentiles.
+ *
+ * Recording is one nanoTime call and one array store per phase, with no allocation, so it is
+ * always on. Like the data center, it belongs to the thread that runs the epochs; other threads
+ * should read the immutable {@link Summary} handed over from that thread.
+ */
+public class EpochProfiler {
+
+    public enum Phase {
+        COORDINATOR("coordinator"),
+        ASSIGNMENT("assignment"),
+        SPRINT_EVALUATION("sprint eval"),
+        THERMAL_UPDATE("thermal"),
+        RACK_POWER_CHECK("rack power"),
+        EXECUTE("execute"),
+        BOOKKEEPING("bookkeeping"); // work stealing, job release and change tracking
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final int WINDOW = 1024; // epochs the percentiles are taken over
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long[][] samples = new long[PHASES.length + 1][WINDOW]; // last row is the whole epoch
+    private final long[] current = new long[PHASES.length];
+    private long epochStart;
+    private long mark;
+    private long recorded;
+
+    void start() {
+        epochStart = System.nanoTime();
+        mark = epochStart;
+    }
+
+    /**
+     * Ends {@code phase}: charges it with the time since the previous mark.
+     */
+    void mark(Phase phase) {
+        long now = System.nanoTime();
+        current[phase.ordinal()] = now - mark;
+        mark = now;
+    }
+
+    void finish() {
+        int slot = (int) (recorded % WINDOW);
+        for (int p = 0; p < current.length; p++) {
+            samples[p][slot] = current[p];
+        }
+        samples[PHASES.length][slot] = mark - epochStart;
+        recorded++;
+    }
+
+    /**
+     * Last measured duration of a phase, in nanoseconds.
+     */
+    public long getLastNanos(Phase phase) {
+        return current[phase.ordinal()];
+    }
+
+    public long getRecorded() {
+        return recorded;
+    }
+
+    public void reset() {
+        recorded = 0;
+    }
+
+    /**
+     * Percentiles of every phase over the last WINDOW epochs. Sorts a copy of each window, so
+     * call it at reporting rate, not every epoch.
+     */
+    public Summary summarize() {
+        int n = (int) Math.min(recorded, WINDOW);
+        int rows = PHASES.length + 1;
+        long[][] stats = new long[rows][];
+        long[] sorted = new long[n];
+        for (int p = 0; p < rows; p++) {
+            System.arraycopy(samples[p], 0, sorted, 0, n);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long v : sorted) sum += v;
+            stats[p] = new long[] {
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    n == 0 ? 0 : sorted[n - 1], n == 0 ? 0 : sum / n};
+        }
+        return new Summary(n, stats);
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)];
+    }
+
+    /**
+     * Percentiles of each phase at one point in time. Immutable, so safe to pass between threads.
+     */
+    public static final class Summary {
+        private static final int P50 = 0, P90 = 1, P99 = 2, MAX = 3, MEAN = 4;
+
+        private final int epochs;
+        private final long[][] stats; // [phase, or PHASES.length for the whole epoch][P50..MEAN]
+
+        private Summary(int epochs, long[][] stats) {
+            this.epochs = epochs;
+            this.stats = stats;
+        }
+
+        /**
+         * Number of epochs the percentiles cover, at most WINDOW.
+         */
+        public int getEpochs() {
+            return epochs;
+        }
+
+        public long getP50(Phase phase) {
+            return stats[phase.ordinal()][P50];
+        }
+
+        public long getP90(Phase phase) {
+            return stats[phase.ordinal()][P90];
+        }
+
+        public long getP99(Phase phase) {
+            return stats[phase.ordinal()][P99];
+        }
+
+        public long getMax(Phase phase) {
+            return stats[phase.ordinal()][MAX];
+        }
+
+        public long getMean(Phase phase) {
+            return stats[phase.ordinal()][MEAN];
+        }
+
+        public long getEpochP50() {
+            return stats[PHASES.length][P50];
+        }
+
+        public long getEpochP99() {
+            return stats[PHASES.length][P99];
+        }
+
+        public long getEpochMean() {
+            return stats[PHASES.length][MEAN];
+        }
+
+        /**
+         * Share of the mean epoch time spent in a phase, 0 to 1.
+         */
+        public double getShare(Phase phase) {
+            long total = getEpochMean();
+            return total == 0 ? 0.0 : getMean(phase) / (double) total;
+        }
+
+        /**
+         * Fixed-width table of the phases in microseconds, for a monospace label or a console.
+         */
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-12s %8s %8s %8s %6s%n", "phase (us)", "p50", "p90", "p99", "share"));
+            for (Phase phase : PHASES) {
+                sb.append(String.format("%-12s %8.1f %8.1f %8.1f %5.1f%%%n", phase.getLabel(),
+                        getP50(phase) / 1e3, getP90(phase) / 1e3, getP99(phase) / 1e3, 100 * getShare(phase)));
+            }
+            sb.append(String.format("%-12s %8.1f %8.1f %8.1f%n", "epoch",
+                    stats[PHASES.length][P50] / 1e3, stats[PHASES.length][P90] / 1e3, stats[PHASES.length][P99] / 1e3));
+            sb.append(String.format("over the last %d epoch(s)", epochs));
+            return sb.toString();
+        }
+    }
+}
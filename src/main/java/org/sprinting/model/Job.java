@@ -0,0 +1,226 @@
+package org.sprinting.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A job made of Task stages with precedence edges. A stage becomes ready for scheduling only
+ * once all of its predecessors have completed; readiness is tracked with per-stage in-degree
+ * counters, so releasing successors costs O(out-degree) per completed stage.
+ *
+ * Each epoch the job recomputes the bottom level of every unfinished stage (its remaining work
+ * plus the longest remaining chain after it). Released stages whose bottom level equals the
+ * job's are on the critical path and get a utility boost, so sprints go where they shorten
+ * the job's makespan.
+ *
+ * When a stage's boost changes while a runner holds it, the runner re-keys it, so under the
+ * utility disciplines a stage that becomes critical while waiting moves up its queue and may
+ * preempt a weaker running task.
+ */
+public class Job {
+
+    private final int id;
+    private final List<Task> stages = new ArrayList<>();
+    private int[][] successors = new int[4][];   // stage -> successor stage indices
+    private int[] successorCounts = new int[4];  // stage -> used length of its successors row
+
+    // Set up by submit()
+    private int[] inDegree;
+    private int[] topoOrder;
+    private boolean[] released;
+    private boolean[] finished;
+    private int[] bottomLevel;
+    private int[] inFlight;        // released stages not yet seen completed
+    private int[] done;            // scratch for update(): stages seen completed this epoch
+    private int inFlightCount;
+    private int remainingStages;
+    private long submitEpoch = -1;
+    private long completionEpoch = -1;
+
+    public Job(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Adds a stage and returns its index within the job.
+     */
+    public int addStage(Task task) {
+        if (inDegree != null) {
+            throw new IllegalStateException("Job " + id + " has already been submitted");
+        }
+        int v = stages.size();
+        if (v == successors.length) {
+            successors = Arrays.copyOf(successors, v * 2);
+            successorCounts = Arrays.copyOf(successorCounts, v * 2);
+        }
+        stages.add(task);
+        successors[v] = new int[2];
+        return v;
+    }
+
+    /**
+     * Declares that stage {@code after} cannot start until stage {@code before} completes.
+     */
+    public void addDependency(int before, int after) {
+        if (inDegree != null) {
+            throw new IllegalStateException("Job " + id + " has already been submitted");
+        }
+        int count = successorCounts[before];
+        if (count == successors[before].length) {
+            successors[before] = Arrays.copyOf(successors[before], count * 2);
+        }
+        successors[before][count] = after;
+        successorCounts[before] = count + 1;
+    }
+
+    /**
+     * Freezes the graph, checks it is acyclic and returns the stages that are ready at once.
+     */
+    List<Task> submit(long epoch, double criticalBoost) {
+        int n = stages.size();
+        inDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            int[] succ = successors[v];
+            for (int k = 0; k < successorCounts[v]; k++) {
+                inDegree[succ[k]]++;
+            }
+        }
+
+        // Kahn's algorithm on a copy of the in-degrees gives a topological order
+        int[] degree = inDegree.clone();
+        topoOrder = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (degree[v] == 0) topoOrder[tail++] = v;
+        }
+        while (head < tail) {
+            int v = topoOrder[head++];
+            int[] succ = successors[v];
+            for (int k = 0; k < successorCounts[v]; k++) {
+                if (--degree[succ[k]] == 0) topoOrder[tail++] = succ[k];
+            }
+        }
+        if (tail != n) {
+            throw new IllegalArgumentException("Job " + id + " has a dependency cycle");
+        }
+
+        released = new boolean[n];
+        finished = new boolean[n];
+        bottomLevel = new int[n];
+        inFlight = new int[n];
+        done = new int[n];
+        remainingStages = n;
+        submitEpoch = epoch;
+
+        List<Task> ready = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) release(v, ready);
+        }
+        if (n == 0) {
+            completionEpoch = epoch;
+        } else {
+            markCriticalPath(criticalBoost);
+        }
+        return ready;
+    }
+
+    /**
+     * Called once per epoch after execution: retires completed stages, appends newly ready
+     * successors to {@code ready} and re-marks the critical path.
+     */
+    void update(long epoch, List<Task> ready, double criticalBoost) {
+        if (isComplete()) return;
+
+        // Compact the in-flight list first so releases can append to it
+        int completed = 0;
+        int kept = 0;
+        for (int i = 0; i < inFlightCount; i++) {
+            int v = inFlight[i];
+            if (stages.get(v).getState() == TaskState.COMPLETED) {
+                done[completed++] = v;
+            } else {
+                inFlight[kept++] = v;
+            }
+        }
+        inFlightCount = kept;
+
+        for (int i = 0; i < completed; i++) {
+            int v = done[i];
+            finished[v] = true;
+            remainingStages--;
+            int[] succ = successors[v];
+            for (int k = 0; k < successorCounts[v]; k++) {
+                if (--inDegree[succ[k]] == 0) release(succ[k], ready);
+            }
+        }
+
+        if (remainingStages == 0) {
+            completionEpoch = epoch;
+            return;
+        }
+        markCriticalPath(criticalBoost);
+    }
+
+    private void release(int v, List<Task> ready) {
+        released[v] = true;
+        inFlight[inFlightCount++] = v;
+        ready.add(stages.get(v));
+    }
+
+    /**
+     * Bottom levels in reverse topological order, then boosts the released stages that start
+     * a longest remaining chain. O(stages + edges).
+     */
+    private void markCriticalPath(double criticalBoost) {
+        int critical = 0;
+        for (int t = topoOrder.length - 1; t >= 0; t--) {
+            int v = topoOrder[t];
+            if (finished[v]) {
+                bottomLevel[v] = 0;
+                continue;
+            }
+            int longestAfter = 0;
+            int[] succ = successors[v];
+            for (int k = 0; k < successorCounts[v]; k++) {
+                longestAfter = Math.max(longestAfter, bottomLevel[succ[k]]);
+            }
+            bottomLevel[v] = stages.get(v).getDuration() + longestAfter;
+            if (released[v]) critical = Math.max(critical, bottomLevel[v]);
+        }
+        for (int i = 0; i < inFlightCount; i++) {
+            int v = inFlight[i];
+            stages.get(v).setUtilityBoost(bottomLevel[v] == critical ? criticalBoost : 0.0);
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public List<Task> getStages() {
+        return stages;
+    }
+
+    public boolean isComplete() {
+        return completionEpoch >= 0;
+    }
+
+    /**
+     * Epochs from submission to the completion of the last stage, or -1 while running.
+     */
+    public long getMakespan() {
+        return isComplete() ? completionEpoch - submitEpoch : -1;
+    }
+
+    /**
+     * Remaining work along the longest chain of unfinished stages, as of the last update.
+     */
+    public int getCriticalPathLength() {
+        int longest = 0;
+        for (int i = 0; i < inFlightCount; i++) {
+            longest = Math.max(longest, bottomLevel[inFlight[i]]);
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,10 @@
+package org.sprinting.model;
+
+/**
+ * Order in which a TaskRunner executes its queued tasks.
+ */
+public enum QueueDiscipline {
+    FIFO,             // arrival order, never preempts
+    UTILITY,          // highest utility first
+    UTILITY_DENSITY   // highest utility per remaining epoch unit first
+}
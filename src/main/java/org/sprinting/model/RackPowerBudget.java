@@ -0,0 +1,54 @@
+package org.sprinting.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Per-rack sprint-token budget. Runners must acquire a token from their rack before sprinting,
+ * so a rack can never exceed its power limit. Counters are lock-free and safe to acquire from
+ * several threads at once.
+ */
+public class RackPowerBudget {
+
+    private final AtomicIntegerArray remaining;
+
+    public RackPowerBudget(int numRacks) {
+        this.remaining = new AtomicIntegerArray(numRacks);
+    }
+
+    /**
+     * Refills every rack to the given number of tokens at the start of an epoch.
+     */
+    public void reset(int tokensPerRack) {
+        for (int rack = 0; rack < remaining.length(); rack++) {
+            remaining.set(rack, tokensPerRack);
+        }
+    }
+
+    public boolean tryAcquire(int rackId, int tokens) {
+        while (true) {
+            int current = remaining.get(rackId);
+            if (current < tokens) {
+                return false;
+            }
+            if (remaining.compareAndSet(rackId, current, current - tokens)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean tryAcquire(int rackId) {
+        return tryAcquire(rackId, 1);
+    }
+
+    public void release(int rackId, int tokens) {
+        remaining.addAndGet(rackId, tokens);
+    }
+
+    public int getRemaining(int rackId) {
+        return remaining.get(rackId);
+    }
+
+    public int getNumRacks() {
+        return remaining.length();
+    }
+}
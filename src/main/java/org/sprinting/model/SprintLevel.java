@@ -0,0 +1,69 @@
+package org.sprinting.model;
+
+/**
+ * One boost level a runner can sprint at. Heat, hydrogel drain and power are all relative to
+ * the original binary sprint, which is {@link #FULL}: 2x speed, +0.25 heat, -0.1 hydrogel and
+ * one unit of rack power per epoch.
+ */
+public class SprintLevel {
+
+    public static final SprintLevel FULL = new SprintLevel("2x", 2.0, 0.25, 0.1, 1.0);
+
+    private final String name;
+    private final double speedup;        // epoch units of work done per epoch
+    private final double heatRate;       // chip temperature added per epoch once hydrogel is spent
+    private final double hydrogelDrain;  // hydrogel consumed per epoch
+    private final double powerWeight;    // rack power drawn, in units of a full sprint
+    private final int powerMilli;        // powerWeight in thousandths, for integer token accounting
+
+    public SprintLevel(String name, double speedup, double heatRate, double hydrogelDrain, double powerWeight) {
+        if (speedup < 1.0) {
+            throw new IllegalArgumentException("Sprint speedup must be at least 1.0, got " + speedup);
+        }
+        this.name = name;
+        this.speedup = speedup;
+        this.heatRate = heatRate;
+        this.hydrogelDrain = hydrogelDrain;
+        this.powerWeight = powerWeight;
+        this.powerMilli = (int) Math.round(powerWeight * 1000);
+    }
+
+    /**
+     * A 1.5x level at half the power and heat of a full sprint, followed by the full sprint.
+     */
+    public static SprintLevel[] twoLevels() {
+        return new SprintLevel[] {
+            new SprintLevel("1.5x", 1.5, 0.12, 0.05, 0.5),
+            FULL
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getSpeedup() {
+        return speedup;
+    }
+
+    public double getHeatRate() {
+        return heatRate;
+    }
+
+    public double getHydrogelDrain() {
+        return hydrogelDrain;
+    }
+
+    public double getPowerWeight() {
+        return powerWeight;
+    }
+
+    public int getPowerMilli() {
+        return powerMilli;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
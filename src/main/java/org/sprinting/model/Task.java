@@ -8,6 +8,9 @@ public class Task {
     private int remainingEpochUnits;
     private TaskState state;
     private double utility;
+    private double utilityBoost; // extra utility while on its job's critical path
+    private boolean sprintWorthy; // placed as sprint-worthy work; counted by the runner holding it
+    TaskRunner holder; // runner holding the task, running or waiting; null otherwise
     private static int numTasksCreated = 0;
 
     public Task(int id, int duration, double utility) {
@@ -48,18 +51,42 @@ public class Task {
     }
 
     public double getUtility() {
-        return utility;
+        return Math.min(1.0, utility + utilityBoost);
+    }
+
+    public boolean isSprintWorthy() {
+        return sprintWorthy;
+    }
+
+    /**
+     * Set by a scheduler when placing the task; must not change while a runner holds it.
+     */
+    public void setSprintWorthy(boolean sprintWorthy) {
+        this.sprintWorthy = sprintWorthy;
+    }
+
+    /**
+     * Sets the critical-path boost and, if it changed, has the runner holding the task re-key
+     * it, so the boost also counts in that runner's queue order and preemption.
+     */
+    void setUtilityBoost(double boost) {
+        if (boost == utilityBoost) return;
+        this.utilityBoost = boost;
+        if (holder != null) holder.rekey(this);
     }
 
     public void executeEpoch(boolean isSprinting) {
+        executeEpoch(isSprinting ? 2 : 1); // sprinting processes 2 units per epoch (assumption)
+    }
+
+    /**
+     * Advances the task by the given number of epoch units.
+     */
+    public void executeEpoch(int units) {
         if (state == TaskState.COMPLETED) return;
 
         state = TaskState.RUNNING;
-        if (isSprinting) {
-            remainingEpochUnits -= 2; // sprinting processes 2 units per epoch (assumption)
-        } else {
-            remainingEpochUnits--;
-        }
+        remainingEpochUnits -= units;
         if (remainingEpochUnits <= 0) {
             remainingEpochUnits = 0;
             state = TaskState.COMPLETED;
@@ -0,0 +1,160 @@
+package org.sprinting.model;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of tasks keyed on a primitive double, with insertion order breaking ties.
+ * Keys and sequence numbers live in parallel primitive arrays, so no boxing or comparator
+ * objects are involved.
+ */
+public class TaskHeap {
+
+    private Task[] tasks = new Task[8];
+    private double[] keys = new double[8];
+    private long[] seqs = new long[8];
+    private int size = 0;
+    private long nextSeq = 0;
+
+    public void add(Task task, double key) {
+        add(task, key, nextSeq++);
+    }
+
+    /**
+     * Re-inserts a task under the sequence number it was first given, so a task that leaves
+     * the heap and comes back keeps its place among equal keys.
+     */
+    public void add(Task task, double key, long seq) {
+        if (size == tasks.length) {
+            int capacity = size * 2;
+            tasks = Arrays.copyOf(tasks, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            seqs = Arrays.copyOf(seqs, capacity);
+        }
+        int pos = size++;
+        tasks[pos] = task;
+        keys[pos] = key;
+        seqs[pos] = seq;
+        siftUp(pos);
+    }
+
+    public Task peek() {
+        return size == 0 ? null : tasks[0];
+    }
+
+    /**
+     * Sequence number of the top task, for use with {@link #add(Task, double, long)}.
+     */
+    public long peekSeq() {
+        return seqs[0];
+    }
+
+    public Task poll() {
+        if (size == 0) return null;
+        Task top = tasks[0];
+        size--;
+        if (size > 0) {
+            move(size, 0);
+            siftDown(0);
+        }
+        tasks[size] = null;
+        return top;
+    }
+
+    /**
+     * Removes the lowest-priority task: smallest key, latest insertion among equal keys. That
+     * task is always a leaf, so only the leaves are scanned. Never the top unless it is the
+     * only element.
+     */
+    public Task pollLowest() {
+        if (size == 0) return null;
+        int pos = lowest();
+        Task task = tasks[pos];
+        size--;
+        if (pos < size) {
+            move(size, pos);
+            siftUp(pos); // pos stays a leaf, so the moved task can only need to rise
+        }
+        tasks[size] = null;
+        return task;
+    }
+
+    /**
+     * The task {@link #pollLowest()} would remove, or null if empty.
+     */
+    public Task peekLowest() {
+        return size == 0 ? null : tasks[lowest()];
+    }
+
+    private int lowest() {
+        int lowest = size - 1;
+        for (int i = size >>> 1; i < size - 1; i++) {
+            if (higher(lowest, i)) lowest = i;
+        }
+        return lowest;
+    }
+
+    /**
+     * Changes the key of a task already in the heap and restores heap order; it keeps its
+     * sequence number. O(size) to find the task. Returns false if the task is not in the heap.
+     */
+    public boolean rekey(Task task, double key) {
+        for (int pos = 0; pos < size; pos++) {
+            if (tasks[pos] == task) {
+                keys[pos] = key;
+                siftDown(siftUp(pos));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Task get(int i) {
+        return tasks[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns where the task ended up
+    private int siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!higher(pos, parent)) break;
+            swap(pos, parent);
+            pos = parent;
+        }
+        return pos;
+    }
+
+    private void siftDown(int pos) {
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && higher(child + 1, child)) child++;
+            if (!higher(child, pos)) break;
+            swap(pos, child);
+            pos = child;
+        }
+    }
+
+    private boolean higher(int a, int b) {
+        return keys[a] > keys[b] || (keys[a] == keys[b] && seqs[a] < seqs[b]);
+    }
+
+    private void move(int from, int to) {
+        tasks[to] = tasks[from];
+        keys[to] = keys[from];
+        seqs[to] = seqs[from];
+    }
+
+    private void swap(int a, int b) {
+        Task t = tasks[a]; tasks[a] = tasks[b]; tasks[b] = t;
+        double k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+        long s = seqs[a]; seqs[a] = seqs[b]; seqs[b] = s;
+    }
+}
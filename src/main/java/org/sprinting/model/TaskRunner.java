@@ -1,7 +1,7 @@
 package org.sprinting.model;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 
 /**
@@ -12,8 +12,22 @@ public class TaskRunner {
     private final int ID;
     private final int SERVER_ID;
     private final int RACK_ID;
-    private final Queue<Task> taskQueue;
-    private boolean isSprinting;
+    private final Deque<Task> taskQueue; // waiting tasks; guarded by this runner's lock so other runners can steal from it
+    private final TaskHeap taskHeap;     // used instead of taskQueue for the priority disciplines
+    private QueueDiscipline discipline = QueueDiscipline.FIFO;
+    private Task[] slots = new Task[1];  // tasks executing concurrently, null when a slot is free
+    private long[] slotSeqs = new long[1]; // heap sequence numbers of slot tasks, kept for re-queueing
+    private int activeSlots;
+    private int preemptions;
+    private SprintLevel[] sprintLevels = {SprintLevel.FULL}; // ascending intensity
+    private SprintLevel sprintLevel;  // level sprinted at this epoch, null when not sprinting
+    private int requestedLevel = -1;  // index into sprintLevels wanted this epoch
+    private double progressCarry;     // fractional epoch units earned by sub-integer speedups
+    private int sprintLevelCap = Integer.MAX_VALUE; // highest level the thermal guard allows, -1 for none
+    private boolean sprintCapped;     // the last request was lowered or vetoed by the cap
+    private long workCompleted;       // epoch units executed over the runner's lifetime
+    private int totalWork; // remaining epoch units across slots and queue, kept in step with both
+    private int sprintWorthyTasks; // held tasks flagged sprint-worthy, kept in step on add, steal and completion
     private double sprintThreshold; // placeholder threshold for utility-based sprinting
     private int epochsInRecovery; //number of epochs till we have fully recovered. 0 means we are in active state. When we have a power or thermal failure, we set this to some positive integer.
     private final int COOLING_EPOCHS = 5; //placeholder for num epochs to recover from thermal failure
@@ -23,52 +37,328 @@ public class TaskRunner {
         this.ID = id;
         this.SERVER_ID = serverId;
         this.RACK_ID = rackId;
-        this.taskQueue = new LinkedList<>();
-        this.isSprinting = false;
+        this.taskQueue = new ArrayDeque<>();
+        this.taskHeap = new TaskHeap();
         this.sprintThreshold = sprintThreshold;
         this.epochsInRecovery = 0;
     }
 
-    public void addTask(Task task) {
-        taskQueue.add(task);
+    public synchronized void addTask(Task task) {
+        task.holder = this;
+        enqueue(task);
+        totalWork += task.getDuration();
+        if (task.isSprintWorthy()) sprintWorthyTasks++;
+        fillSlots();
+    }
+
+    /**
+     * Sets how many tasks this runner executes at once. Tasks in slots that no longer exist go
+     * back to the front of the queue.
+     */
+    public synchronized void setExecutionSlots(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("A runner needs at least one execution slot, got " + count);
+        }
+        Task[] resized = new Task[count];
+        long[] resizedSeqs = new long[count];
+        activeSlots = 0;
+        for (int i = slots.length - 1; i >= 0; i--) {
+            Task task = slots[i];
+            if (task == null) continue;
+            if (activeSlots < count) {
+                resizedSeqs[activeSlots] = slotSeqs[i];
+                resized[activeSlots++] = task;
+            } else {
+                requeue(i);
+            }
+        }
+        slots = resized;
+        slotSeqs = resizedSeqs;
+        fillSlots();
+    }
+
+    public int getExecutionSlots() {
+        return slots.length;
+    }
+
+    public synchronized int getActiveSlots() {
+        return activeSlots;
+    }
+
+    /**
+     * Moves waiting tasks into free slots. Under the priority disciplines a waiting task whose
+     * key beats the weakest task in a slot also displaces it back into the queue; a displaced
+     * task that had already started counts as a preemption.
+     */
+    private void fillSlots() {
+        for (int i = 0; i < slots.length && queueSize() > 0; i++) {
+            if (slots[i] == null) {
+                takeHead(i);
+                activeSlots++;
+            }
+        }
+        if (discipline == QueueDiscipline.FIFO) return;
+        while (!taskHeap.isEmpty()) {
+            int weakest = -1;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null && (weakest < 0 || priority(slots[i]) < priority(slots[weakest]))) {
+                    weakest = i;
+                }
+            }
+            if (weakest < 0 || priority(taskHeap.peek()) <= priority(slots[weakest])) return;
+            if (slots[weakest].getState() == TaskState.RUNNING) {
+                preemptions++;
+            }
+            requeue(weakest);
+            takeHead(weakest);
+        }
+    }
+
+    private void takeHead(int slot) {
+        if (discipline != QueueDiscipline.FIFO) {
+            slotSeqs[slot] = taskHeap.peekSeq();
+        }
+        slots[slot] = pollHead();
+    }
+
+    // Puts a slot's task back at the front of the waiting tasks; does not clear the slot
+    private void requeue(int slot) {
+        if (discipline == QueueDiscipline.FIFO) {
+            taskQueue.addFirst(slots[slot]);
+        } else {
+            taskHeap.add(slots[slot], priority(slots[slot]), slotSeqs[slot]);
+        }
+    }
+
+    /**
+     * Switches how queued tasks are ordered, carrying over everything already queued.
+     * Under the priority disciplines a newly queued task with a higher key preempts the
+     * weakest running task before the next epoch executes.
+     */
+    public synchronized void setQueueDiscipline(QueueDiscipline newDiscipline) {
+        if (newDiscipline == discipline) return;
+        // Slot tasks are the oldest, so they are re-queued first and keep their precedence
+        Task[] queued = new Task[activeSlots + queueSize()];
+        int n = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                queued[n++] = slots[i];
+                slots[i] = null;
+            }
+        }
+        activeSlots = 0;
+        while (n < queued.length) {
+            queued[n++] = pollHead();
+        }
+        discipline = newDiscipline;
+        for (Task task : queued) {
+            enqueue(task);
+        }
+        fillSlots();
+    }
+
+    /**
+     * Called when a held task's utility changes. Under the priority disciplines a waiting task
+     * is moved to its new place in the queue, and either way the head may now preempt a slot.
+     */
+    synchronized void rekey(Task task) {
+        if (discipline == QueueDiscipline.FIFO) return;
+        taskHeap.rekey(task, priority(task)); // no-op if it is in a slot
+        fillSlots();
+    }
+
+    public QueueDiscipline getQueueDiscipline() {
+        return discipline;
+    }
+
+    private double priority(Task task) {
+        if (discipline == QueueDiscipline.UTILITY_DENSITY) {
+            return task.getUtility() / Math.max(1, task.getDuration());
+        }
+        return task.getUtility();
+    }
+
+    private void enqueue(Task task) {
+        if (discipline == QueueDiscipline.FIFO) {
+            taskQueue.add(task);
+        } else {
+            taskHeap.add(task, priority(task));
+        }
+    }
+
+    private Task pollHead() {
+        return discipline == QueueDiscipline.FIFO ? taskQueue.poll() : taskHeap.poll();
+    }
+
+    private int queueSize() {
+        return discipline == QueueDiscipline.FIFO ? taskQueue.size() : taskHeap.size();
     }
 
     public int getTotalWork() {
-        return taskQueue.stream().mapToInt(Task::getDuration).sum();
+        return totalWork;
+    }
+
+    /**
+     * Epochs needed to drain this runner at normal speed with every slot busy; the load
+     * measure schedulers balance on.
+     */
+    public double getLoad() {
+        return totalWork / (double) slots.length;
+    }
+
+    /**
+     * Tasks held by this runner, executing or waiting.
+     */
+    public synchronized int getQueuedTaskCount() {
+        return activeSlots + queueSize();
+    }
+
+    /**
+     * Removes a waiting task for another runner to execute: the most recently queued one under
+     * FIFO, or the lowest-priority one under the priority disciplines, so the victim keeps its
+     * most valuable work. Tasks in execution slots are never stolen; returns null if nothing is
+     * stealable.
+     */
+    public synchronized Task stealTask() {
+        if (queueSize() == 0) {
+            return null;
+        }
+        Task stolen = discipline == QueueDiscipline.FIFO ? taskQueue.pollLast() : taskHeap.pollLowest();
+        stolen.holder = null;
+        totalWork -= stolen.getDuration();
+        if (stolen.isSprintWorthy()) sprintWorthyTasks--;
+        return stolen;
+    }
+
+    /**
+     * Duration of the task {@link #stealTask()} would take, or 0 if nothing is stealable.
+     */
+    public synchronized int peekStealableWork() {
+        if (queueSize() == 0) return 0;
+        Task tail = discipline == QueueDiscipline.FIFO ? taskQueue.peekLast() : taskHeap.peekLowest();
+        return tail.getDuration();
     }
 
     /**
      * Determines whether to sprint based on calculated utility and threshold.
      */
     public void evaluateSprint() {
-        isSprinting = false;
-        if (epochsInRecovery > 0) return;
+        if (requestSprint()) {
+            startSprint(requestedLevel);
+        }
+    }
+
+    /**
+     * Clears last epoch's sprint and reports whether this runner would like to sprint now.
+     * Used by admission control, which then decides via {@link #grantSprint()}.
+     */
+    public boolean requestSprint() {
+        sprintLevel = null;
+        requestedLevel = -1;
+        sprintCapped = false;
+        if (epochsInRecovery > 0) return false;
         double utility = calculateUtility();
-        if (utility > sprintThreshold) {
-            startSprint();
+        if (utility <= sprintThreshold) return false;
+
+        // Split the band above the threshold evenly across levels: the more the head task is
+        // worth, the harder the runner asks to boost
+        double excess = (utility - sprintThreshold) / Math.max(1e-9, 1.0 - sprintThreshold);
+        requestedLevel = Math.min(sprintLevels.length - 1, (int) (excess * sprintLevels.length));
+        if (requestedLevel > sprintLevelCap) {
+            sprintCapped = true;
+            requestedLevel = sprintLevelCap;
         }
+        return requestedLevel >= 0;
     }
 
-    private void startSprint() {
-        isSprinting = true;
+    /**
+     * Limits the level the next {@link #requestSprint()} may ask for; -1 forbids sprinting.
+     */
+    public void setSprintLevelCap(int cap) {
+        this.sprintLevelCap = cap;
     }
 
-    private double calculateUtility() { 
-        Task currTask = taskQueue.peek();
-        if (currTask == null) {
+    /**
+     * True if the last sprint request was lowered or vetoed by the level cap.
+     */
+    public boolean isSprintCapped() {
+        return sprintCapped;
+    }
+
+    public void grantSprint() {
+        startSprint(requestedLevel);
+    }
+
+    /**
+     * Grants a sprint at the given level, which admission control may pick below the
+     * requested one when the rack's power budget cannot cover it.
+     */
+    public void grantSprint(int level) {
+        startSprint(level);
+    }
+
+    private void startSprint(int level) {
+        sprintLevel = sprintLevels[level];
+    }
+
+    /**
+     * Index of the level asked for by the last {@link #requestSprint()}, or -1.
+     */
+    public int getRequestedLevel() {
+        return requestedLevel;
+    }
+
+    public void setSprintLevels(SprintLevel[] levels) {
+        if (levels.length == 0) {
+            throw new IllegalArgumentException("At least one sprint level is required");
+        }
+        this.sprintLevels = levels.clone();
+    }
+
+    public SprintLevel[] getSprintLevels() {
+        return sprintLevels.clone();
+    }
+
+    public SprintLevel getSprintLevel() {
+        return sprintLevel;
+    }
+
+    /**
+     * Mean utility of the tasks in execution slots: a sprint boosts all of them, so this is
+     * the per-slot value of sprinting this epoch.
+     */
+    private synchronized double calculateUtility() { 
+        if (activeSlots == 0) {
             return 0.0;
         }
-        return currTask.getUtility(); // a little naive but probably fine...
+        double sum = 0.0;
+        for (Task task : slots) {
+            if (task != null) sum += task.getUtility();
+        }
+        return sum / activeSlots; // a little naive but probably fine...
     }
 
-    public void executeEpoch() {
-        if (!taskQueue.isEmpty()) {
-            Task current = taskQueue.peek();
-            current.executeEpoch(this.isSprinting());
+    public synchronized void executeEpoch() {
+        if (activeSlots == 0) return;
+
+        double speed = progressCarry + (sprintLevel == null ? 1.0 : sprintLevel.getSpeedup());
+        int units = (int) speed;
+        progressCarry = speed - units;
+        for (int i = 0; i < slots.length; i++) {
+            Task current = slots[i];
+            if (current == null) continue;
+            int before = current.getDuration();
+            current.executeEpoch(units);
+            totalWork -= before - current.getDuration();
+            workCompleted += before - current.getDuration();
             if (current.getState() == TaskState.COMPLETED) {
-                taskQueue.poll();
+                if (current.isSprintWorthy()) sprintWorthyTasks--;
+                current.holder = null;
+                slots[i] = null;
+                activeSlots--;
             }
         }
+        fillSlots();
     }
 
     public void updateState() {
@@ -79,12 +369,56 @@ public class TaskRunner {
 
     public void updateEpochsInRecoveryForPowerFailure() {
         this.epochsInRecovery = Math.max(epochsInRecovery, POWER_EPOCHS);
-        this.isSprinting = false;
+        this.sprintLevel = null;
     }
 
     public void updateEpochsInRecoveryForThermalFailure() {
         this.epochsInRecovery = Math.max(epochsInRecovery, COOLING_EPOCHS);
-        this.isSprinting = false;
+        this.sprintLevel = null;
+    }
+
+    /**
+     * Held tasks (running or waiting) flagged sprint-worthy when placed; O(1).
+     */
+    public int getSprintWorthyTaskCount() {
+        return sprintWorthyTasks;
+    }
+
+    /**
+     * Flags every held task by whether its utility clears the threshold and recounts. O(held
+     * tasks); for a scheduler taking over runners that already hold work.
+     */
+    public synchronized void markSprintWorthy(double threshold) {
+        sprintWorthyTasks = 0;
+        for (Task task : slots) {
+            if (task != null) mark(task, threshold);
+        }
+        if (discipline == QueueDiscipline.FIFO) {
+            for (Task task : taskQueue) mark(task, threshold);
+        } else {
+            for (int i = 0; i < taskHeap.size(); i++) mark(taskHeap.get(i), threshold);
+        }
+    }
+
+    private void mark(Task task, double threshold) {
+        task.setSprintWorthy(task.getUtility() > threshold);
+        if (task.isSprintWorthy()) sprintWorthyTasks++;
+    }
+
+    public int getPreemptions() {
+        return preemptions;
+    }
+
+    public long getWorkCompleted() {
+        return workCompleted;
+    }
+
+    public int getCoolingEpochs() {
+        return COOLING_EPOCHS;
+    }
+
+    public int getEpochsInRecovery() {
+        return epochsInRecovery;
     }
 
     public boolean canSprint() {
@@ -92,7 +426,7 @@ public class TaskRunner {
     }
 
     public boolean isSprinting() {
-        return isSprinting;
+        return sprintLevel != null;
     }
 
     public int getId() {
@@ -108,8 +442,7 @@ public class TaskRunner {
     }
 
     public double getCurrentUtility() {
-        Task t = taskQueue.peek();
-        return t == null ? 0.0 : t.getUtility();
+        return calculateUtility();
     }
 
     public void setSprintThreshold(double newThreshold) {
@@ -119,6 +452,6 @@ public class TaskRunner {
     @Override
     public String toString() {
         return String.format("TaskRunner{id='%d', sprinting=%s, totalWork=%d}",
-                ID, isSprinting, getTotalWork());
+                ID, isSprinting(), getTotalWork());
     }
 }
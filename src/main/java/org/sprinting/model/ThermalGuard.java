@@ -0,0 +1,71 @@
+package org.sprinting.model;
+
+/**
+ * Look-ahead thermal guard. Rolls the chip temperature and hydrogel model forward under a
+ * continued sprint, for up to horizon epochs, and caps each runner's sprint level:
+ *
+ * - a level forecast to keep sprinting for the whole horizon is preferred, so a sprint that
+ *   would trip a few epochs out is tapered to the highest level that can be sustained;
+ * - if no level can be sustained, the highest level that does not trip this epoch is allowed,
+ *   so the run is cut short one epoch before the trip instead of costing COOLING_EPOCHS of
+ *   recovery;
+ * - if even the lowest level would trip this epoch, the sprint is vetoed.
+ *
+ * With a single sprint level there is nothing to taper to, and only the one-epoch check matters.
+ */
+public class ThermalGuard {
+
+    private final int horizon; // epochs of continued sprinting to forecast
+
+    public ThermalGuard() {
+        this(3);
+    }
+
+    public ThermalGuard(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("Forecast horizon must be at least one epoch, got " + horizon);
+        }
+        this.horizon = horizon;
+    }
+
+    /**
+     * Forecasts sprinting at the given level every epoch from now and returns the 1-based
+     * epoch in which the chip would hit 1.0, or horizon + 1 if it stays below within the horizon.
+     */
+    public int epochsUntilTrip(double chipTemp, double hydrogelState, SprintLevel level, double activeFraction) {
+        double temp = chipTemp;
+        double hydrogel = hydrogelState;
+        for (int epoch = 1; epoch <= horizon; epoch++) {
+            double nextTemp = DataCenter.computeNewTemperature(temp, level, hydrogel, activeFraction);
+            if (nextTemp >= 1.0) {
+                return epoch;
+            }
+            hydrogel = DataCenter.computeNewHydrogelState(temp, level, hydrogel, activeFraction);
+            temp = nextTemp;
+        }
+        return horizon + 1;
+    }
+
+    /**
+     * Highest index into levels (ascending intensity) forecast to sprint through the whole
+     * horizon; failing that, the highest that would not trip this epoch; -1 if even the lowest
+     * level would.
+     */
+    public int maxSafeLevel(double chipTemp, double hydrogelState, SprintLevel[] levels, double activeFraction) {
+        int safeNow = -1;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            int untilTrip = epochsUntilTrip(chipTemp, hydrogelState, levels[level], activeFraction);
+            if (untilTrip > horizon) {
+                return level;
+            }
+            if (untilTrip > 1 && safeNow < 0) {
+                safeNow = level;
+            }
+        }
+        return safeNow;
+    }
+
+    public int getHorizon() {
+        return horizon;
+    }
+}
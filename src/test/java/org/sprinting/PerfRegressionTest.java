@@ -0,0 +1,197 @@
+package org.sprinting;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.sprinting.coordinator.SprintCoordinator;
+import org.sprinting.model.DataCenter;
+import org.sprinting.model.QueueDiscipline;
+import org.sprinting.model.Task;
+import org.sprinting.model.TaskRunner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Performance regression check: fixed-seed scenarios that fail if a run is slower than its
+ * throughput floor, allocates more than its per-epoch budget, or ends in a state that differs
+ * from its golden checksum. Tagged "perf", so only {@code mvn -Pperf test} runs them.
+ *
+ * The checksum covers every runner's temperature, hydrogel, work and sprint state plus the
+ * data center counters, bit for bit, so an optimisation that changes results by even one ulp
+ * fails here. When a change to the results is intended, copy the reported checksum into the test.
+ *
+ * Throughput floors leave generous headroom for slow machines; scale them with
+ * {@code -Dperf.throughputScale=0.5} (or 0 to skip) on a loaded CI box. Allocation is measured
+ * with ThreadMXBean over all live threads, since admission and stealing run on the common pool.
+ */
+@Tag("perf")
+class PerfRegressionTest {
+
+    // The first fifth of every run warms up the JIT and is not measured
+    private static final int WARMUP_DIVISOR = 5;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static PrintStream console;
+
+    @BeforeAll
+    static void setUp() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        // The model logs assignments and solves to stdout; keep that out of the timings
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        System.setOut(console);
+    }
+
+    @Test
+    void small() {
+        Result result = run(200, 3000, 1L, false);
+        assertTrue(result.epochsPerSec >= minEpochsPerSec(300),
+                "throughput " + Math.round(result.epochsPerSec) + " epochs/s");
+        assertTrue(result.bytesPerEpoch <= 12_000, "allocated " + result.bytesPerEpoch + " bytes/epoch");
+        assertEquals("3a22d0c40dfacf65", hex(result.checksum));
+    }
+
+    @Test
+    void large() {
+        Result result = run(4000, 1000, 2L, false);
+        assertTrue(result.epochsPerSec >= minEpochsPerSec(300),
+                "throughput " + Math.round(result.epochsPerSec) + " epochs/s");
+        assertTrue(result.bytesPerEpoch <= 150_000, "allocated " + result.bytesPerEpoch + " bytes/epoch");
+        assertEquals("d4c3cba5b12cd249", hex(result.checksum));
+    }
+
+    /**
+     * Admission, stealing, thermal guard and utility queues all on.
+     */
+    @Test
+    void features() {
+        Result result = run(1000, 1500, 3L, true);
+        assertTrue(result.epochsPerSec >= minEpochsPerSec(150),
+                "throughput " + Math.round(result.epochsPerSec) + " epochs/s");
+        assertTrue(result.bytesPerEpoch <= 60_000, "allocated " + result.bytesPerEpoch + " bytes/epoch");
+        assertEquals("e97fac2a740e9173", hex(result.checksum));
+    }
+
+    private static final class Result {
+        final double epochsPerSec;
+        final long bytesPerEpoch;
+        final long checksum;
+
+        Result(double epochsPerSec, long bytesPerEpoch, long checksum) {
+            this.epochsPerSec = epochsPerSec;
+            this.bytesPerEpoch = bytesPerEpoch;
+            this.checksum = checksum;
+        }
+    }
+
+    private static Result run(int runners, int epochs, long seed, boolean features) {
+        List<List<Task>> arrivals = arrivals(runners, epochs, seed);
+        DataCenter dataCenter = new DataCenter(2, 10, runners, arrivals.get(0),
+                new SprintCoordinator(2, 30, null)); // live solves only, whatever table is on disk
+        if (features) {
+            dataCenter.setSprintAdmission(true);
+            dataCenter.setWorkStealing(true);
+            dataCenter.setThermalGuard(true);
+            dataCenter.setQueueDiscipline(QueueDiscipline.UTILITY);
+        }
+
+        int warmup = epochs / WARMUP_DIVISOR;
+        long start = 0, allocatedBefore = 0;
+        for (int e = 1; e <= epochs; e++) {
+            if (e == warmup + 1) {
+                allocatedBefore = allocatedBytes();
+                start = System.nanoTime();
+            }
+            dataCenter.addTasks(arrivals.get(e));
+            dataCenter.runEpoch();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        int measured = epochs - warmup;
+        return new Result(measured / (elapsed / 1e9), allocated / measured, checksum(dataCenter));
+    }
+
+    private static double minEpochsPerSec(double floor) {
+        return floor * Double.parseDouble(System.getProperty("perf.throughputScale", "1.0"));
+    }
+
+    /**
+     * Task batches for every epoch, built up front so their allocation is not measured. Index 0
+     * is the initial task list. Ids count from zero per run, independent of other runs.
+     */
+    private static List<List<Task>> arrivals(int runners, int epochs, long seed) {
+        Random random = new Random(seed);
+        List<List<Task>> batches = new ArrayList<>(epochs + 1);
+        int nextId = 0;
+        for (int e = 0; e <= epochs; e++) {
+            int count = e == 0 ? runners / 2 : runners / 15;
+            List<Task> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double mean = random.nextDouble() < 0.7 ? 0.2 : 0.8;
+                double utility = Math.max(0.0, Math.min(1.0, mean + 0.08 * random.nextGaussian()));
+                batch.add(new Task(nextId++, 3 + random.nextInt(5), utility));
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static long allocatedBytes() {
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    /**
+     * FNV-1a over the exact bits of the final state.
+     */
+    private static long checksum(DataCenter dataCenter) {
+        long h = 0xcbf29ce484222325L;
+        double[] chipTemps = dataCenter.getChipTemps();
+        double[] hydrogelStates = dataCenter.getHydrogelStates();
+        List<TaskRunner> runners = dataCenter.getRunners();
+        for (int i = 0; i < runners.size(); i++) {
+            TaskRunner runner = runners.get(i);
+            h = mix(h, Double.doubleToLongBits(chipTemps[i]));
+            h = mix(h, Double.doubleToLongBits(hydrogelStates[i]));
+            h = mix(h, runner.getTotalWork());
+            h = mix(h, (runner.isSprinting() ? 1 : 0) | (runner.canSprint() ? 2 : 0));
+        }
+        h = mix(h, dataCenter.getWorkCompleted());
+        h = mix(h, dataCenter.getPowerTrips());
+        h = mix(h, dataCenter.getThermalTrips());
+        h = mix(h, dataCenter.getTripsAvoided());
+        h = mix(h, Double.doubleToLongBits(dataCenter.getCurrentThreshold()));
+        h = mix(h, dataCenter.getTasks().size());
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        for (int b = 0; b < 64; b += 8) {
+            h ^= (v >>> b) & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static String hex(long v) {
+        return String.format("%016x", v);
+    }
+}
@@ -0,0 +1,75 @@
+package org.sprinting.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A stale queue key used to make fillSlots swap the same two tasks forever
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+class JobCriticalPathTest {
+
+    /**
+     * A stage waiting in a utility-ordered queue that becomes critical is re-keyed, so it runs
+     * before a non-critical task that was ahead of it.
+     */
+    @Test
+    void stageThatBecomesCriticalWhileQueuedMovesAhead() {
+        Job job = new Job(1);
+        Task shorter = new Task(1, 5, 0.3);
+        Task longer = new Task(2, 6, 0.3);
+        job.addStage(shorter);
+        job.addStage(longer);
+        job.submit(0, 0.5); // both released; only the longer one is on the critical path
+
+        TaskRunner runner = new TaskRunner(0, 0.5, 0, 0);
+        runner.setQueueDiscipline(QueueDiscipline.UTILITY);
+        Task running = new Task(3, 1, 0.9);
+        Task other = new Task(4, 5, 0.4);
+        runner.addTask(running);
+        runner.addTask(other);
+        runner.addTask(shorter); // queued behind other: 0.3 < 0.4
+
+        // Elsewhere the longer stage progresses, so the shorter one becomes critical (0.3 + 0.5)
+        longer.executeEpoch(2);
+        job.update(1, new ArrayList<>(), 0.5);
+        assertEquals(0.8, shorter.getUtility(), 1e-9);
+
+        runner.executeEpoch(); // the running task completes and the queue head takes the slot
+        runner.executeEpoch();
+        assertEquals(TaskState.RUNNING, shorter.getState());
+        assertEquals(TaskState.PENDING, other.getState());
+    }
+
+    /**
+     * A waiting stage that becomes critical with a higher utility than the running task
+     * preempts it.
+     */
+    @Test
+    void stageThatBecomesCriticalWhileQueuedPreempts() {
+        Job job = new Job(1);
+        Task shorter = new Task(1, 5, 0.3);
+        Task longer = new Task(2, 6, 0.3);
+        job.addStage(shorter);
+        job.addStage(longer);
+        job.submit(0, 0.5);
+
+        TaskRunner runner = new TaskRunner(0, 0.5, 0, 0);
+        runner.setQueueDiscipline(QueueDiscipline.UTILITY);
+        Task running = new Task(3, 5, 0.6);
+        runner.addTask(running);
+        runner.addTask(shorter);
+        runner.executeEpoch();
+
+        longer.executeEpoch(2);
+        job.update(1, new ArrayList<>(), 0.5);
+
+        assertEquals(1, runner.getPreemptions());
+        runner.executeEpoch();
+        assertEquals(TaskState.RUNNING, shorter.getState());
+        assertEquals(4, running.getDuration());
+    }
+}